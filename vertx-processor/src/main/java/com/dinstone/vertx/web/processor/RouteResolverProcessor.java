@@ -0,0 +1,719 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import com.dinstone.vertx.web.annotation.BeanParam;
+import com.dinstone.vertx.web.annotation.BodyLimit;
+import com.dinstone.vertx.web.annotation.CacheResponse;
+import com.dinstone.vertx.web.annotation.Compress;
+import com.dinstone.vertx.web.annotation.ConcurrencyLimit;
+import com.dinstone.vertx.web.annotation.Consumes;
+import com.dinstone.vertx.web.annotation.Context;
+import com.dinstone.vertx.web.annotation.CookieParam;
+import com.dinstone.vertx.web.annotation.Delete;
+import com.dinstone.vertx.web.annotation.ETag;
+import com.dinstone.vertx.web.annotation.Execution;
+import com.dinstone.vertx.web.annotation.FormParam;
+import com.dinstone.vertx.web.annotation.Get;
+import com.dinstone.vertx.web.annotation.Head;
+import com.dinstone.vertx.web.annotation.HeaderParam;
+import com.dinstone.vertx.web.annotation.MatrixParam;
+import com.dinstone.vertx.web.annotation.Options;
+import com.dinstone.vertx.web.annotation.Patch;
+import com.dinstone.vertx.web.annotation.Path;
+import com.dinstone.vertx.web.annotation.PathParam;
+import com.dinstone.vertx.web.annotation.Post;
+import com.dinstone.vertx.web.annotation.Produces;
+import com.dinstone.vertx.web.annotation.Put;
+import com.dinstone.vertx.web.annotation.QueryParam;
+import com.dinstone.vertx.web.annotation.SingleFlight;
+import com.dinstone.vertx.web.annotation.Timeout;
+import com.dinstone.vertx.web.annotation.Trace;
+import com.dinstone.vertx.web.annotation.WebHandler;
+import com.dinstone.vertx.web.annotation.WorkerPool;
+import com.dinstone.vertx.web.core.AnnotationRouteResolver;
+import com.dinstone.vertx.web.model.ArgType;
+
+/**
+ * generate a route resolver for each {@link WebHandler} class at compile time, the {@link AnnotationRouteResolver}
+ * uses it instead of scanning the handler class by reflection. the route definitions are the same as the reflective
+ * ones, the route methods are invoked directly.
+ * <p>
+ * a handler class is skipped with a note if it's not public, abstract or an inner class, and a route method is skipped
+ * with a warning if it has an argument without annotation, the same as the reflective resolver.
+ *
+ * @author dinstone
+ */
+@SupportedAnnotationTypes("com.dinstone.vertx.web.annotation.WebHandler")
+public class RouteResolverProcessor extends AbstractProcessor {
+
+    private static final String INDENT = "    ";
+
+    private Elements elements;
+
+    private Types types;
+
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(WebHandler.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            if (!isGeneratable(type)) {
+                messager.printMessage(Kind.NOTE, "route resolver is not generated, resolve by reflection", type);
+                continue;
+            }
+
+            try {
+                generate(type);
+            } catch (IOException e) {
+                messager.printMessage(Kind.ERROR, "can't generate route resolver: " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGeneratable(TypeElement type) {
+        return !type.getModifiers().contains(Modifier.ABSTRACT) && isAccessible(type);
+    }
+
+    private static boolean isAccessible(TypeElement type) {
+        Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC)) {
+            return false;
+        }
+        if (type.getNestingKind() == NestingKind.TOP_LEVEL) {
+            return true;
+        }
+        return type.getNestingKind() == NestingKind.MEMBER && modifiers.contains(Modifier.STATIC)
+                && isAccessible((TypeElement) type.getEnclosingElement());
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String resolverName = AnnotationRouteResolver.getGeneratedResolverName(elements.getBinaryName(type).toString());
+        String simpleName = packageName.isEmpty() ? resolverName : resolverName.substring(packageName.length() + 1);
+        String handlerName = type.getQualifiedName().toString();
+
+        WebHandler webHandler = type.getAnnotation(WebHandler.class);
+        Produces produces = findAnnotation(type, Produces.class);
+        Consumes consumes = findAnnotation(type, Consumes.class);
+
+        List<String> methods = new ArrayList<>();
+        List<String> routes = new ArrayList<>();
+        List<String> invokers = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            if (!isRouteMethod(method)) {
+                continue;
+            }
+
+            String httpMethod = null;
+            String methodPath = null;
+            Get get = findAnnotation(method, Get.class);
+            Post post = findAnnotation(method, Post.class);
+            Put put = findAnnotation(method, Put.class);
+            Delete delete = findAnnotation(method, Delete.class);
+            Patch patch = findAnnotation(method, Patch.class);
+            Head head = findAnnotation(method, Head.class);
+            Options options = findAnnotation(method, Options.class);
+            Trace trace = findAnnotation(method, Trace.class);
+            Path path = findAnnotation(method, Path.class);
+            if (get != null) {
+                methodPath = get.value();
+                httpMethod = "GET";
+            } else if (post != null) {
+                methodPath = post.value();
+                httpMethod = "POST";
+            } else if (put != null) {
+                methodPath = put.value();
+                httpMethod = "PUT";
+            } else if (delete != null) {
+                methodPath = delete.value();
+                httpMethod = "DELETE";
+            } else if (patch != null) {
+                methodPath = patch.value();
+                httpMethod = "PATCH";
+            } else if (head != null) {
+                methodPath = head.value();
+                httpMethod = "HEAD";
+            } else if (options != null) {
+                methodPath = options.value();
+                httpMethod = "OPTIONS";
+            } else if (trace != null) {
+                methodPath = trace.value();
+                httpMethod = "TRACE";
+            }
+            if (path != null) {
+                methodPath = path.value();
+            }
+            // http method annotation not exist
+            if (methodPath == null) {
+                continue;
+            }
+            // the reflective resolver rejects it too, the precedence of the annotations is ambiguous
+            if (countNonNull(get, post, put, delete, patch, head, options, trace) > 1) {
+                messager.printMessage(Kind.ERROR, "route has more than one http method annotation", method);
+                continue;
+            }
+
+            String methodField = "METHOD_" + methods.size();
+            List<RouteArgument> arguments = parseArguments(method, methodField);
+            List<RouteArgument> unknownArguments = new ArrayList<>();
+            for (RouteArgument argument : arguments) {
+                if (argument.argType == ArgType.UNKNOWN) {
+                    unknownArguments.add(argument);
+                }
+            }
+            if (!unknownArguments.isEmpty()) {
+                messager.printMessage(Kind.WARNING, "route is skipped, args has not annotation for " + unknownArguments,
+                    method);
+                continue;
+            }
+
+            methods.add(methodDeclaration(methodField, handlerName, method));
+            routes.add(routeDefinition(type, webHandler, produces, consumes, methodField, method, httpMethod,
+                methodPath, arguments));
+            invokers.add(methodInvoker(methodField, method));
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.lang.reflect.Method;\n");
+        source.append("import java.util.ArrayList;\n");
+        source.append("import java.util.Arrays;\n");
+        source.append("import java.util.Collections;\n");
+        source.append("import java.util.List;\n\n");
+        source.append("import com.dinstone.vertx.web.core.AbstractRouteResolver;\n");
+        source.append("import com.dinstone.vertx.web.core.MethodInvoker;\n");
+        source.append("import com.dinstone.vertx.web.model.ArgType;\n");
+        source.append("import com.dinstone.vertx.web.model.Argument;\n");
+        source.append("import com.dinstone.vertx.web.model.ExecutionMode;\n");
+        source.append("import com.dinstone.vertx.web.model.RouteDefinition;\n\n");
+        source.append("/**\n * route resolver of {@link ").append(handlerName).append("}, generated by ")
+            .append(getClass().getName()).append(", do not edit.\n */\n");
+        source.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\", \"unused\" })\n");
+        source.append("public class ").append(simpleName).append(" extends AbstractRouteResolver {\n\n");
+        for (String method : methods) {
+            source.append(method);
+        }
+
+        source.append(INDENT).append("@Override\n");
+        source.append(INDENT).append("protected List<RouteDefinition> parseRouteDefinitions(Object service) {\n");
+        source.append(INDENT).append(INDENT).append("if (!(service instanceof ").append(handlerName).append(")) {\n");
+        source.append(INDENT).append(INDENT).append(INDENT).append("return Collections.emptyList();\n");
+        source.append(INDENT).append(INDENT).append("}\n\n");
+        source.append(INDENT).append(INDENT).append("List<RouteDefinition> definitions = new ArrayList<>(")
+            .append(routes.size()).append(");\n");
+        source.append(INDENT).append(INDENT).append("RouteDefinition definition;\n");
+        for (String route : routes) {
+            source.append(route);
+        }
+        source.append(INDENT).append(INDENT).append("return definitions;\n");
+        source.append(INDENT).append("}\n\n");
+
+        source.append(INDENT).append("@Override\n");
+        source.append(INDENT)
+            .append("protected MethodInvoker createInvoker(Object service, RouteDefinition definition) {\n");
+        source.append(INDENT).append(INDENT).append("final ").append(handlerName).append(" handler = (")
+            .append(handlerName).append(") service;\n");
+        source.append(INDENT).append(INDENT).append("Method method = definition.getMethod();\n");
+        for (String invoker : invokers) {
+            source.append(invoker);
+        }
+        source.append(INDENT).append(INDENT).append("return super.createInvoker(service, definition);\n");
+        source.append(INDENT).append("}\n\n");
+        source.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(resolverName, type).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private boolean isRouteMethod(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                || modifiers.contains(Modifier.NATIVE)) {
+            return false;
+        }
+
+        TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+        if (declaringType.getQualifiedName().contentEquals(Object.class.getName())) {
+            return false;
+        }
+
+        String methodName = method.getSimpleName().toString();
+        return !("equals".equals(methodName) || "hashCode".equals(methodName) || "toString".equals(methodName));
+    }
+
+    private String methodDeclaration(String methodField, String handlerName, ExecutableElement method) {
+        StringBuilder declaration = new StringBuilder();
+        declaration.append(INDENT).append("private static final Method ").append(methodField).append(" = getMethod(")
+            .append(handlerName).append(".class, \"").append(method.getSimpleName()).append('"');
+        for (VariableElement parameter : method.getParameters()) {
+            declaration.append(", ").append(typeName(parameter.asType())).append(".class");
+        }
+        return declaration.append(");\n\n").toString();
+    }
+
+    private String routeDefinition(TypeElement type, WebHandler webHandler, Produces produces, Consumes consumes,
+            String methodField, ExecutableElement method, String httpMethod, String methodPath,
+            List<RouteArgument> arguments) {
+        String prefix = INDENT + INDENT + "definition.";
+        StringBuilder route = new StringBuilder("\n");
+        route.append(INDENT).append(INDENT).append("definition = new RouteDefinition(")
+            .append(literal(webHandler.value())).append(", ").append(literal(produces == null ? null : produces.value()))
+            .append(", ").append(literal(consumes == null ? null : consumes.value())).append(", ").append(methodField)
+            .append(");\n");
+        route.append(prefix).append("setMethodPath(")
+            .append(literal("".equals(methodPath) ? method.getSimpleName().toString() : methodPath)).append(");\n");
+        if (httpMethod != null) {
+            route.append(prefix).append("setHttpMethod(").append(literal(httpMethod)).append(");\n");
+        }
+        Consumes mconsumes = findAnnotation(method, Consumes.class);
+        if (mconsumes != null) {
+            route.append(prefix).append("setConsumes(").append(literal(mconsumes.value())).append(");\n");
+        }
+        Produces mproduces = findAnnotation(method, Produces.class);
+        if (mproduces != null) {
+            route.append(prefix).append("setProduces(").append(literal(mproduces.value())).append(");\n");
+        }
+
+        // method annotations override type annotations
+        Execution execution = findRouteAnnotation(type, method, Execution.class);
+        if (execution != null) {
+            route.append(prefix).append("setExecutionMode(ExecutionMode.").append(execution.value().name())
+                .append(");\n");
+        }
+        WorkerPool workerPool = findRouteAnnotation(type, method, WorkerPool.class);
+        if (workerPool != null) {
+            route.append(prefix).append("setWorkerPool(").append(literal(workerPool.value())).append(", ")
+                .append(workerPool.size()).append(", ").append(workerPool.maxExecuteTime()).append("L);\n");
+        }
+        Timeout timeout = findRouteAnnotation(type, method, Timeout.class);
+        if (timeout != null) {
+            route.append(prefix).append("setTimeout(").append(timeout.value()).append("L);\n");
+        }
+        ConcurrencyLimit concurrencyLimit = findRouteAnnotation(type, method, ConcurrencyLimit.class);
+        if (concurrencyLimit != null) {
+            route.append(prefix).append("setMaxConcurrency(").append(concurrencyLimit.value()).append(");\n");
+        }
+        if (findAnnotation(method, SingleFlight.class) != null) {
+            route.append(prefix).append("setSingleFlight(true);\n");
+        }
+        CacheResponse cacheResponse = findAnnotation(method, CacheResponse.class);
+        if (cacheResponse != null) {
+            route.append(prefix).append("setCacheTtl(").append(cacheResponse.ttl()).append("L);\n");
+        }
+        if (findRouteAnnotation(type, method, ETag.class) != null) {
+            route.append(prefix).append("setEtag(true);\n");
+        }
+        Compress compress = findRouteAnnotation(type, method, Compress.class);
+        if (compress != null) {
+            route.append(prefix).append("setCompression(").append(compress.value()).append(", ")
+                .append(compress.level()).append(", ").append(compress.minSize()).append(");\n");
+        }
+        BodyLimit bodyLimit = findRouteAnnotation(type, method, BodyLimit.class);
+        if (bodyLimit != null) {
+            route.append(prefix).append("setBodyLimit(").append(bodyLimit.value()).append("L, ")
+                .append(bodyLimit.uploads()).append(");\n");
+        }
+
+        route.append(prefix).append("setArguments(Arrays.<Argument> asList(");
+        for (int i = 0; i < arguments.size(); i++) {
+            RouteArgument argument = arguments.get(i);
+            route.append(i == 0 ? "\n" : ",\n").append(INDENT).append(INDENT).append(INDENT).append("new Argument(")
+                .append(argument.index).append(", ").append(argument.nameExpression).append(", ")
+                .append(argument.typeName).append(".class, ArgType.").append(argument.argType.name()).append(")");
+        }
+        route.append("));\n");
+        route.append(prefix).append("setReturnType(").append(typeName(method.getReturnType())).append(".class);\n");
+        route.append(INDENT).append(INDENT).append("definitions.add(definition);\n");
+        return route.toString();
+    }
+
+    private String methodInvoker(String methodField, ExecutableElement method) {
+        StringBuilder call = new StringBuilder("handler.").append(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                call.append(", ");
+            }
+            call.append('(').append(typeName(parameters.get(i).asType())).append(") args[").append(i).append(']');
+        }
+        call.append(')');
+
+        StringBuilder invoker = new StringBuilder();
+        invoker.append(INDENT).append(INDENT).append("if (method == ").append(methodField).append(") {\n");
+        invoker.append(INDENT).append(INDENT).append(INDENT);
+        if (method.getReturnType().getKind() == TypeKind.VOID) {
+            invoker.append("return args -> {\n");
+            invoker.append(INDENT).append(INDENT).append(INDENT).append(INDENT).append(call).append(";\n");
+            invoker.append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("return null;\n");
+            invoker.append(INDENT).append(INDENT).append(INDENT).append("};\n");
+        } else {
+            invoker.append("return args -> ").append(call).append(";\n");
+        }
+        invoker.append(INDENT).append(INDENT).append("}\n");
+        return invoker.toString();
+    }
+
+    /**
+     * parse the arguments of the method, the names of the body and context arguments are read from the reflected
+     * method at runtime as the reflective resolver does, they are {@code argN} unless compiled with {@code -parameters}.
+     * 
+     * @param method
+     * @param methodExpression the expression of the reflected method in the generated source
+     * @return
+     */
+    private List<RouteArgument> parseArguments(ExecutableElement method, String methodExpression) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<RouteArgument> arguments = new ArrayList<>(parameters.size());
+        for (int index = 0; index < parameters.size(); index++) {
+            VariableElement parameter = parameters.get(index);
+            String paramName = parameter.getSimpleName().toString();
+            String nameExpression = null;
+            ArgType argType = ArgType.UNKNOWN;
+
+            if (parameter.getAnnotation(PathParam.class) != null) {
+                paramName = parameter.getAnnotation(PathParam.class).value();
+                argType = ArgType.PATH;
+            }
+            if (parameter.getAnnotation(QueryParam.class) != null) {
+                paramName = parameter.getAnnotation(QueryParam.class).value();
+                argType = ArgType.QUERY;
+            }
+            if (parameter.getAnnotation(FormParam.class) != null) {
+                paramName = parameter.getAnnotation(FormParam.class).value();
+                argType = ArgType.FORM;
+            }
+            if (parameter.getAnnotation(CookieParam.class) != null) {
+                paramName = parameter.getAnnotation(CookieParam.class).value();
+                argType = ArgType.COOKIE;
+            }
+            if (parameter.getAnnotation(HeaderParam.class) != null) {
+                paramName = parameter.getAnnotation(HeaderParam.class).value();
+                argType = ArgType.HEADER;
+            }
+            if (parameter.getAnnotation(MatrixParam.class) != null) {
+                paramName = parameter.getAnnotation(MatrixParam.class).value();
+                argType = ArgType.MATRIX;
+            }
+            if (parameter.getAnnotation(BeanParam.class) != null) {
+                paramName = parameter.getSimpleName().toString();
+                nameExpression = methodExpression + ".getParameters()[" + index + "].getName()";
+                argType = ArgType.BODY;
+            }
+            if (parameter.getAnnotation(Context.class) != null) {
+                paramName = parameter.getSimpleName().toString();
+                nameExpression = methodExpression + ".getParameters()[" + index + "].getName()";
+                argType = ArgType.CONTEXT;
+            }
+
+            arguments.add(new RouteArgument(index, paramName,
+                nameExpression != null ? nameExpression : literal(paramName), typeName(parameter.asType()), argType));
+        }
+
+        if (!hasUnknownArgument(arguments)) {
+            return arguments;
+        }
+
+        // search from interface class
+        TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+        for (TypeMirror iface : declaringType.getInterfaces()) {
+            ExecutableElement equivalentMethod = findEquivalentMethod(iface, method);
+            if (equivalentMethod != null) {
+                mergeArguments(arguments, parseArguments(equivalentMethod, declaredMethod(equivalentMethod)));
+            }
+        }
+
+        // search from super class
+        ExecutableElement equivalentMethod = findEquivalentMethod(declaringType.getSuperclass(), method);
+        if (equivalentMethod != null) {
+            mergeArguments(arguments, parseArguments(equivalentMethod, declaredMethod(equivalentMethod)));
+        }
+
+        return arguments;
+    }
+
+    /**
+     * the expression of the method declared by its type, it's looked up at runtime as the reflective resolver does
+     */
+    private String declaredMethod(ExecutableElement method) {
+        StringBuilder expression = new StringBuilder("getDeclaredMethod(")
+            .append(typeName(method.getEnclosingElement().asType())).append(".class, \"")
+            .append(method.getSimpleName()).append('"');
+        for (VariableElement parameter : method.getParameters()) {
+            expression.append(", ").append(typeName(parameter.asType())).append(".class");
+        }
+        return expression.append(')').toString();
+    }
+
+    private static int countNonNull(Object... values) {
+        int count = 0;
+        for (Object value : values) {
+            if (value != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean hasUnknownArgument(List<RouteArgument> arguments) {
+        for (RouteArgument argument : arguments) {
+            if (argument.argType == ArgType.UNKNOWN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void mergeArguments(List<RouteArgument> supmps, List<RouteArgument> submps) {
+        for (int i = 0; i < submps.size(); i++) {
+            if (supmps.get(i).argType == ArgType.UNKNOWN && submps.get(i).argType != ArgType.UNKNOWN) {
+                supmps.set(i, submps.get(i));
+            }
+        }
+    }
+
+    /**
+     * the method annotation overrides the annotation of the handler type
+     */
+    private <A extends Annotation> A findRouteAnnotation(TypeElement type, ExecutableElement method,
+            Class<A> annotationType) {
+        A annotation = findAnnotation(method, annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+        return findAnnotation(type, annotationType);
+    }
+
+    /**
+     * search the annotation from the type, its interfaces and super classes, the non public types are skipped.
+     */
+    private <A extends Annotation> A findAnnotation(TypeElement type, Class<A> annotationType) {
+        if (!type.getModifiers().contains(Modifier.PUBLIC)) {
+            return null;
+        }
+
+        A annotation = type.getAnnotation(annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+
+        for (TypeMirror iface : type.getInterfaces()) {
+            annotation = findAnnotation((TypeElement) types.asElement(iface), annotationType);
+            if (annotation != null) {
+                return annotation;
+            }
+        }
+
+        TypeElement superclass = asTypeElement(type.getSuperclass());
+        if (superclass == null) {
+            return null;
+        }
+        return findAnnotation(superclass, annotationType);
+    }
+
+    /**
+     * search the annotation from the method and the equivalent methods of the interfaces and super classes.
+     */
+    private <A extends Annotation> A findAnnotation(ExecutableElement method, Class<A> annotationType) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || !isPublic(method)) {
+            return null;
+        }
+
+        A annotation = method.getAnnotation(annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+
+        TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+        for (TypeMirror iface : declaringType.getInterfaces()) {
+            ExecutableElement equivalentMethod = findEquivalentMethod(iface, method);
+            if (equivalentMethod != null) {
+                annotation = findAnnotation(equivalentMethod, annotationType);
+                if (annotation != null) {
+                    return annotation;
+                }
+            }
+        }
+
+        ExecutableElement equivalentMethod = findEquivalentMethod(declaringType.getSuperclass(), method);
+        if (equivalentMethod != null) {
+            return findAnnotation(equivalentMethod, annotationType);
+        }
+        return null;
+    }
+
+    private static boolean isPublic(ExecutableElement method) {
+        return method.getModifiers().contains(Modifier.PUBLIC)
+                || method.getEnclosingElement().getKind() == ElementKind.INTERFACE;
+    }
+
+    /**
+     * find the method declared by the type with the same name and erased parameter types
+     */
+    private ExecutableElement findEquivalentMethod(TypeMirror type, ExecutableElement method) {
+        TypeElement typeElement = asTypeElement(type);
+        if (typeElement == null) {
+            return null;
+        }
+
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (ExecutableElement candidate : ElementFilter.methodsIn(typeElement.getEnclosedElements())) {
+            if (!candidate.getSimpleName().equals(method.getSimpleName())) {
+                continue;
+            }
+            List<? extends VariableElement> candidateParameters = candidate.getParameters();
+            if (candidateParameters.size() != parameters.size()) {
+                continue;
+            }
+            boolean same = true;
+            for (int i = 0; i < parameters.size() && same; i++) {
+                same = types.isSameType(types.erasure(parameters.get(i).asType()),
+                    types.erasure(candidateParameters.get(i).asType()));
+            }
+            if (same) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private TypeElement asTypeElement(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement typeElement = (TypeElement) types.asElement(type);
+        if (typeElement.getQualifiedName().contentEquals(Object.class.getName())) {
+            return null;
+        }
+        return typeElement;
+    }
+
+    /**
+     * the source name of the erased type, it's used as class literal and cast type
+     */
+    private String typeName(TypeMirror type) {
+        TypeMirror erasure = types.erasure(type);
+        switch (erasure.getKind()) {
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) erasure).asElement()).getQualifiedName().toString();
+            case ARRAY:
+                return typeName(((ArrayType) erasure).getComponentType()) + "[]";
+            default:
+                // primitive and void
+                return erasure.toString();
+        }
+    }
+
+    private String literal(String value) {
+        return value == null ? "null" : elements.getConstantExpression(value);
+    }
+
+    private String literal(String[] values) {
+        if (values == null) {
+            return "null";
+        }
+
+        StringBuilder literal = new StringBuilder("new String[] { ");
+        for (int i = 0; i < values.length; i++) {
+            literal.append(i == 0 ? "" : ", ").append(literal(values[i]));
+        }
+        return literal.append(" }").toString();
+    }
+
+    private static class RouteArgument {
+
+        private final int index;
+
+        private final String name;
+
+        /**
+         * the expression of the name in the generated source
+         */
+        private final String nameExpression;
+
+        private final String typeName;
+
+        private final ArgType argType;
+
+        RouteArgument(int index, String name, String nameExpression, String typeName, ArgType argType) {
+            this.index = index;
+            this.name = name;
+            this.nameExpression = nameExpression;
+            this.typeName = typeName;
+            this.argType = argType;
+        }
+
+        @Override
+        public String toString() {
+            return "Argument [paramIndex=" + index + ", paramName=" + name + ", paramType=" + argType
+                    + ", paramClazz=" + typeName + "]";
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.processor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.dinstone.vertx.web.annotation.BeanParam;
+import com.dinstone.vertx.web.annotation.Context;
+import com.dinstone.vertx.web.annotation.Post;
+import com.dinstone.vertx.web.annotation.Timeout;
+import com.dinstone.vertx.web.annotation.WebHandler;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.RoutingContext;
+
+@WebHandler("/gr")
+@Timeout(3000)
+public class GreetingResource implements GreetingService {
+
+	@Override
+	public String greet(String name, int times) {
+		StringBuilder greeting = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			greeting.append("hello ").append(name).append(i < times - 1 ? ", " : "");
+		}
+		return greeting.toString();
+	}
+
+	@Override
+	public List<String> names() {
+		return Arrays.asList("dinstone", "vertx");
+	}
+
+	@Override
+	public String path(HttpServerRequest request) {
+		return request.path();
+	}
+
+	@Post("/e")
+	public Future<Map<String, Object>> echo(@BeanParam Map<String, Object> body) {
+		return Future.succeededFuture(body);
+	}
+
+	@Post("/v")
+	public void plain(@Context RoutingContext context) {
+		context.response().end("void");
+	}
+
+	public String skipped() {
+		return "skipped";
+	}
+
+}
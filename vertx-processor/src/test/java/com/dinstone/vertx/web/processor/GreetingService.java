@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.processor;
+
+import java.util.List;
+
+import com.dinstone.vertx.web.annotation.Context;
+import com.dinstone.vertx.web.annotation.Get;
+import com.dinstone.vertx.web.annotation.PathParam;
+import com.dinstone.vertx.web.annotation.Produces;
+import com.dinstone.vertx.web.annotation.QueryParam;
+
+import io.vertx.core.http.HttpServerRequest;
+
+@Produces("application/json")
+public interface GreetingService {
+
+	@Get("/g/:name")
+	String greet(@PathParam("name") String name, @QueryParam("times") int times);
+
+	@Get
+	List<String> names();
+
+	@Get("/p")
+	String path(@Context HttpServerRequest request);
+}
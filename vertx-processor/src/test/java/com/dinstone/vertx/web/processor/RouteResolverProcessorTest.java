@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.dinstone.vertx.web.RouterBuilder;
+import com.dinstone.vertx.web.core.AbstractRouteResolver;
+import com.dinstone.vertx.web.core.AnnotationRouteResolver;
+import com.dinstone.vertx.web.model.Argument;
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import io.vertx.ext.web.Router;
+
+@RunWith(VertxUnitRunner.class)
+public class RouteResolverProcessorTest {
+
+    @Test
+    public void testGeneratedDefinitions(TestContext ctx) throws Exception {
+        Class<?> resolverClass = Class.forName(
+            AnnotationRouteResolver.getGeneratedResolverName(GreetingResource.class.getName()));
+        ctx.assertTrue(AbstractRouteResolver.class.isAssignableFrom(resolverClass));
+
+        GreetingResource service = new GreetingResource();
+        List<String> generated = describe(new GeneratedResolver().parse(service));
+        List<String> reflective = describe(new ReflectiveResolver().parse(service));
+        ctx.assertEquals(5, generated.size());
+        ctx.assertTrue(generated.containsAll(reflective));
+        ctx.assertTrue(reflective.containsAll(generated));
+    }
+
+    @Test
+    public void testGeneratedRoutes(TestContext ctx) {
+        final Async async = ctx.async(5);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new GreetingResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(0, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            int port = server.result().actualPort();
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, port, "localhost", "/gr/g/vertx?times=2")
+                .compose(req -> req.send()).compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    return res.body();
+                }).onSuccess(buff -> {
+                    ctx.assertEquals("\"hello vertx, hello vertx\"", buff.toString());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, port, "localhost", "/gr/names").compose(req -> req.send())
+                .compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals("vertx", buff.toJsonArray().getString(1));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.POST, port, "localhost", "/gr/e")
+                .compose(req -> req.putHeader("Content-Type", "application/json").send("{\"name\":\"dinstone\"}"))
+                .compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals("dinstone", buff.toJsonObject().getString("name"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, port, "localhost", "/gr/p").compose(req -> req.send())
+                .compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals("\"/gr/p\"", buff.toString());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.POST, port, "localhost", "/gr/v").compose(req -> req.send())
+                .compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals("void", buff.toString());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    private static List<String> describe(List<RouteDefinition> definitions) {
+        List<String> descriptions = new ArrayList<>();
+        for (RouteDefinition definition : definitions) {
+            StringBuilder description = new StringBuilder().append(definition.getHttpMethod()).append(' ')
+                .append(definition.getRoutePath()).append(' ').append(String.join(",", definition.getProduces()))
+                .append(' ').append(definition.getMethod()).append(' ').append(definition.getReturnType())
+                .append(' ').append(definition.getTimeout());
+            for (Argument argument : definition.getArguments()) {
+                description.append(' ').append(argument.getArgType()).append(':').append(argument.getParamName())
+                    .append(':').append(argument.getParamClazz());
+            }
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+
+    private static class GeneratedResolver extends GreetingResource_RouteResolver {
+
+        List<RouteDefinition> parse(Object service) {
+            return parseRouteDefinitions(service);
+        }
+    }
+
+    private static class ReflectiveResolver extends AnnotationRouteResolver {
+
+        List<RouteDefinition> parse(Object service) {
+            return parseRouteDefinitions(service);
+        }
+    }
+
+}
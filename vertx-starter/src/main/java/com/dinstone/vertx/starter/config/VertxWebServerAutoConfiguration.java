@@ -22,6 +22,7 @@ import javax.annotation.PreDestroy;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
@@ -32,6 +33,7 @@ import org.springframework.context.event.EventListener;
 
 import com.dinstone.vertx.verticle.SpringVerticleFactory;
 import com.dinstone.vertx.verticle.WebServerVerticle;
+import com.dinstone.vertx.web.RouterOptions;
 
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
@@ -89,6 +91,45 @@ public class VertxWebServerAutoConfiguration {
         return new SpringVerticleFactory(applicationContext);
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public RouterOptions routerOptions() {
+        RouterOptions routerOptions = new RouterOptions();
+        if (webServerProperties.getExecutionMode() != null) {
+            routerOptions.setExecutionMode(webServerProperties.getExecutionMode());
+        }
+        routerOptions.setTimeout(webServerProperties.getTimeout());
+        routerOptions.setMaxConcurrency(webServerProperties.getMaxConcurrency());
+        routerOptions.setRetryAfter(webServerProperties.getRetryAfter());
+        routerOptions.setResponseCacheSize(webServerProperties.getResponseCacheSize());
+        routerOptions.setCompressionSupported(webServerProperties.isCompression());
+        routerOptions.setCompressionLevel(webServerProperties.getCompressionLevel());
+        routerOptions.setCompressionMinSize(webServerProperties.getCompressionMinSize());
+        if (webServerProperties.getCompressionExcludedTypes() != null) {
+            routerOptions.setCompressionExcludedTypes(webServerProperties.getCompressionExcludedTypes());
+        }
+        routerOptions.setErrorLogLimit(webServerProperties.getErrorLogLimit());
+        routerOptions.setErrorLogInterval(webServerProperties.getErrorLogInterval());
+        routerOptions.setErrorLogSampleRate(webServerProperties.getErrorLogSampleRate());
+        routerOptions.setBodyLimit(webServerProperties.getBodyLimit());
+        routerOptions.setFileUploads(webServerProperties.isFileUploads());
+        if (webServerProperties.getUploadsDirectory() != null) {
+            routerOptions.setUploadsDirectory(webServerProperties.getUploadsDirectory());
+        }
+        routerOptions.setDeleteUploadedFilesOnEnd(webServerProperties.isDeleteUploadedFilesOnEnd());
+        routerOptions.setHeadSupported(webServerProperties.isHeadSupported());
+        if (webServerProperties.getCorsAllowedOrigins() != null) {
+            routerOptions.setCorsAllowedOrigins(webServerProperties.getCorsAllowedOrigins());
+        }
+        if (webServerProperties.getCorsAllowedHeaders() != null) {
+            routerOptions.setCorsAllowedHeaders(webServerProperties.getCorsAllowedHeaders());
+        }
+        routerOptions.setCorsAllowCredentials(webServerProperties.isCorsAllowCredentials());
+        routerOptions.setCorsMaxAge(webServerProperties.getCorsMaxAge());
+        routerOptions.setIndexedDispatch(webServerProperties.isIndexedDispatch());
+        return routerOptions;
+    }
+
     private VertxOptions loadVertxOptions() {
         VertxOptions vertxOptions = new VertxOptions();
         int blockedCheckInterval = vertxDefaultProperties.getBlockedThreadCheckInterval();
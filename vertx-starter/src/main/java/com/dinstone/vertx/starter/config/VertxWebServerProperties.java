@@ -15,8 +15,14 @@
  */
 package com.dinstone.vertx.starter.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import com.dinstone.vertx.web.RouterOptions;
+import com.dinstone.vertx.web.model.ExecutionMode;
+
 @ConfigurationProperties(prefix = "vertx.web.server")
 public class VertxWebServerProperties {
 
@@ -32,6 +38,48 @@ public class VertxWebServerProperties {
 
     private int instances = Runtime.getRuntime().availableProcessors();
 
+    private ExecutionMode executionMode = RouterOptions.DEFAULT_EXECUTION_MODE;
+
+    private int maxConcurrency;
+
+    private int retryAfter = 1;
+
+    private long responseCacheSize = RouterOptions.DEFAULT_RESPONSE_CACHE_SIZE;
+
+    private boolean compression;
+
+    private int compressionLevel = RouterOptions.DEFAULT_COMPRESSION_LEVEL;
+
+    private int compressionMinSize = RouterOptions.DEFAULT_COMPRESSION_MIN_SIZE;
+
+    private List<String> compressionExcludedTypes = new ArrayList<>(RouterOptions.DEFAULT_COMPRESSION_EXCLUDED_TYPES);
+
+    private int errorLogLimit = 10;
+
+    private long errorLogInterval = 60000;
+
+    private int errorLogSampleRate = 100;
+
+    private long bodyLimit = -1;
+
+    private boolean fileUploads = true;
+
+    private String uploadsDirectory = "file-uploads";
+
+    private boolean deleteUploadedFilesOnEnd;
+
+    private boolean headSupported = true;
+
+    private List<String> corsAllowedOrigins = new ArrayList<>();
+
+    private List<String> corsAllowedHeaders = new ArrayList<>();
+
+    private boolean corsAllowCredentials;
+
+    private int corsMaxAge = RouterOptions.DEFAULT_CORS_MAX_AGE;
+
+    private boolean indexedDispatch;
+
     public String getHost() {
         return host;
     }
@@ -83,4 +131,172 @@ public class VertxWebServerProperties {
         this.idleTimeout = idleTimeout;
     }
 
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public long getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    public void setResponseCacheSize(long responseCacheSize) {
+        this.responseCacheSize = responseCacheSize;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    public void setCompressionMinSize(int compressionMinSize) {
+        this.compressionMinSize = compressionMinSize;
+    }
+
+    public List<String> getCompressionExcludedTypes() {
+        return compressionExcludedTypes;
+    }
+
+    public void setCompressionExcludedTypes(List<String> compressionExcludedTypes) {
+        this.compressionExcludedTypes = compressionExcludedTypes;
+    }
+
+    public int getErrorLogLimit() {
+        return errorLogLimit;
+    }
+
+    public void setErrorLogLimit(int errorLogLimit) {
+        this.errorLogLimit = errorLogLimit;
+    }
+
+    public long getErrorLogInterval() {
+        return errorLogInterval;
+    }
+
+    public void setErrorLogInterval(long errorLogInterval) {
+        this.errorLogInterval = errorLogInterval;
+    }
+
+    public int getErrorLogSampleRate() {
+        return errorLogSampleRate;
+    }
+
+    public void setErrorLogSampleRate(int errorLogSampleRate) {
+        this.errorLogSampleRate = errorLogSampleRate;
+    }
+
+    public long getBodyLimit() {
+        return bodyLimit;
+    }
+
+    public void setBodyLimit(long bodyLimit) {
+        this.bodyLimit = bodyLimit;
+    }
+
+    public boolean isFileUploads() {
+        return fileUploads;
+    }
+
+    public void setFileUploads(boolean fileUploads) {
+        this.fileUploads = fileUploads;
+    }
+
+    public String getUploadsDirectory() {
+        return uploadsDirectory;
+    }
+
+    public void setUploadsDirectory(String uploadsDirectory) {
+        this.uploadsDirectory = uploadsDirectory;
+    }
+
+    public boolean isDeleteUploadedFilesOnEnd() {
+        return deleteUploadedFilesOnEnd;
+    }
+
+    public void setDeleteUploadedFilesOnEnd(boolean deleteUploadedFilesOnEnd) {
+        this.deleteUploadedFilesOnEnd = deleteUploadedFilesOnEnd;
+    }
+
+    public boolean isHeadSupported() {
+        return headSupported;
+    }
+
+    public void setHeadSupported(boolean headSupported) {
+        this.headSupported = headSupported;
+    }
+
+    public List<String> getCorsAllowedOrigins() {
+        return corsAllowedOrigins;
+    }
+
+    public void setCorsAllowedOrigins(List<String> corsAllowedOrigins) {
+        this.corsAllowedOrigins = corsAllowedOrigins;
+    }
+
+    public List<String> getCorsAllowedHeaders() {
+        return corsAllowedHeaders;
+    }
+
+    public void setCorsAllowedHeaders(List<String> corsAllowedHeaders) {
+        this.corsAllowedHeaders = corsAllowedHeaders;
+    }
+
+    public boolean isCorsAllowCredentials() {
+        return corsAllowCredentials;
+    }
+
+    public void setCorsAllowCredentials(boolean corsAllowCredentials) {
+        this.corsAllowCredentials = corsAllowCredentials;
+    }
+
+    public int getCorsMaxAge() {
+        return corsMaxAge;
+    }
+
+    public void setCorsMaxAge(int corsMaxAge) {
+        this.corsMaxAge = corsMaxAge;
+    }
+
+    public boolean isIndexedDispatch() {
+        return indexedDispatch;
+    }
+
+    public void setIndexedDispatch(boolean indexedDispatch) {
+        this.indexedDispatch = indexedDispatch;
+    }
+
 }
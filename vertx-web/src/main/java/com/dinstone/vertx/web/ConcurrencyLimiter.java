@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+/**
+ * limit the in-flight requests of a route
+ * 
+ * @author dinstone
+ *
+ */
+public interface ConcurrencyLimiter {
+
+    /**
+     * create the limiter of a route
+     */
+    @FunctionalInterface
+    interface Factory {
+
+        ConcurrencyLimiter create(RouteDefinition definition);
+    }
+
+    /**
+     * acquire a permit for a request
+     * 
+     * @return false if the request should be rejected
+     */
+    boolean tryAcquire();
+
+    /**
+     * release the permit of a request
+     * 
+     * @param rtt     round trip time of the request in nanoseconds
+     * @param dropped the request is dropped by timeout or connection close, or ended with 503
+     */
+    void release(long rtt, boolean dropped);
+
+    /**
+     * @return current concurrency limit
+     */
+    int getLimit();
+
+    /**
+     * @return current in-flight requests
+     */
+    int getInflight();
+}
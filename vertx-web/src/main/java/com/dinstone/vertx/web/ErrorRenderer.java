@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web;
+
+/**
+ * render the error response of the exception, the response of the default exception handler and unhandled exception.
+ * 
+ * @author dinstone
+ */
+public interface ErrorRenderer {
+
+    /**
+     * @param status the http status code
+     * @param t the exception, null if the cause is unknown
+     * @return
+     */
+    ErrorResponse render(int status, Throwable t);
+}
@@ -17,6 +17,7 @@ package com.dinstone.vertx.web;
 
 import java.io.IOException;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.ext.web.RoutingContext;
 
 /**
@@ -32,5 +33,24 @@ public interface MessageConverter<T> {
 
 	public T read(Class<? extends T> clazz, RoutingContext context) throws Exception;
 
+	/**
+	 * prepare the codec of the type when the route is registered, e.g. the body type and the return type
+	 * 
+	 * @param type
+	 */
+	default void prepare(Class<?> type) {
+	}
+
 	void write(T result, RoutingContext context) throws IOException;
+
+	/**
+	 * encode the result to the response body of {@link #mediaType()}, the encoded body can be cached by the router.
+	 * 
+	 * @param result
+	 * @return null if the converter writes the response by itself
+	 * @throws IOException
+	 */
+	default Buffer encode(T result) throws IOException {
+		return null;
+	}
 }
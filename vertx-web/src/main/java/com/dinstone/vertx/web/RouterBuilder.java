@@ -21,12 +21,16 @@ import java.util.List;
 
 import com.dinstone.vertx.web.annotation.WebHandler;
 import com.dinstone.vertx.web.core.AnnotationRouteResolver;
+import com.dinstone.vertx.web.core.CorsHandler;
 import com.dinstone.vertx.web.core.JsonMessageConverter;
+import com.dinstone.vertx.web.core.RouteIndex;
 import com.dinstone.vertx.web.core.RouterContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.handler.BodyHandler;
 
 /**
  * builde router for web handler
@@ -41,12 +45,17 @@ public interface RouterBuilder {
 
         private final List<RouteResolver> resolvers = new ArrayList<>();
 
-        private final RouterContext routerContext = new RouterContext();
+        private final RouterContext routerContext;
 
         private Router router;
 
         public DefaultRouterBuilder(Vertx vertx) {
+            this(vertx, new RouterOptions());
+        }
+
+        public DefaultRouterBuilder(Vertx vertx, RouterOptions options) {
             router = Router.router(vertx);
+            routerContext = new RouterContext(vertx, options);
 
             converter(new JsonMessageConverter());
             resolver(new AnnotationRouteResolver());
@@ -81,6 +90,39 @@ public interface RouterBuilder {
             return this;
         }
 
+        @Override
+        public RouterBuilder limiter(ConcurrencyLimiter.Factory limiterFactory) {
+            routerContext.setLimiterFactory(limiterFactory);
+            return this;
+        }
+
+        @Override
+        public RouterBuilder errorRenderer(ErrorRenderer errorRenderer) {
+            if (errorRenderer != null) {
+                routerContext.setErrorRenderer(errorRenderer);
+            }
+            return this;
+        }
+
+        @Override
+        public RouterBuilder objectMapper(ObjectMapper objectMapper, boolean blackbird) {
+            if (blackbird) {
+                JsonMessageConverter.registerBlackbird(objectMapper);
+            }
+            return converter(new JsonMessageConverter(objectMapper));
+        }
+
+        @Override
+        public RouterBuilder bodyHandler(BodyHandler bodyHandler) {
+            routerContext.setBodyHandler(bodyHandler);
+            return this;
+        }
+
+        @Override
+        public RouterContext getRouterContext() {
+            return routerContext;
+        }
+
         @Override
         public Router build() {
             for (Object handler : handlers) {
@@ -88,16 +130,33 @@ public interface RouterBuilder {
                     resolver.resolve(routerContext, router, handler);
                 }
             }
+            // the preflight responses are precomputed from the resolved routes
+            CorsHandler.register(router, routerContext);
+
+            // the indexed routes are dispatched before the regex routes
+            RouteIndex routeIndex = routerContext.getRouteIndex();
+            if (routeIndex != null) {
+                router.route().order(-1).handler(routeIndex);
+            }
 
             return router;
         }
 
+        @Override
+        public void close() {
+            routerContext.close();
+        }
+
     }
 
     public static RouterBuilder create(Vertx vertx) {
         return new DefaultRouterBuilder(vertx);
     }
 
+    public static RouterBuilder create(Vertx vertx, RouterOptions options) {
+        return new DefaultRouterBuilder(vertx, options);
+    }
+
     /**
      * and {@link MessageConverter}
      * 
@@ -122,10 +181,60 @@ public interface RouterBuilder {
      */
     public RouterBuilder handler(Object handler);
 
+    /**
+     * set the adaptive concurrency limiter of the blocking and future routes, e.g.
+     * {@code definition -> new GradientConcurrencyLimiter()}. the static limit of the route wins.
+     * 
+     * @param limiterFactory
+     * @return
+     */
+    public RouterBuilder limiter(ConcurrencyLimiter.Factory limiterFactory);
+
+    /**
+     * set the renderer of the error response, the default renders json
+     * 
+     * @param errorRenderer
+     * @return
+     */
+    public RouterBuilder errorRenderer(ErrorRenderer errorRenderer);
+
+    /**
+     * set the object mapper of the json message converter, the jackson blackbird module is registered to it if enabled
+     * and on the classpath
+     * 
+     * @param objectMapper
+     * @param blackbird
+     * @return
+     */
+    public RouterBuilder objectMapper(ObjectMapper objectMapper, boolean blackbird);
+
+    /**
+     * set the body handler shared by the routes without {@code @BodyLimit}, the default is built by the body options
+     * of the router options
+     * 
+     * @param bodyHandler
+     * @return
+     */
+    public RouterBuilder bodyHandler(BodyHandler bodyHandler);
+
+    /**
+     * get the router context, it exposes the runtime state of the routes, e.g. the concurrency limiters and worker
+     * pools.
+     * 
+     * @return
+     */
+    public RouterContext getRouterContext();
+
     /**
      * parse route definition and build router
      * 
      * @return
      */
     public Router build();
+
+    /**
+     * close the dedicated worker pools of the routes, call it when the router is no longer used, e.g. in
+     * {@code Verticle#stop()}
+     */
+    public void close();
 }
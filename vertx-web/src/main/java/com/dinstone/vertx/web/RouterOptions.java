@@ -0,0 +1,417 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.dinstone.vertx.web.model.ExecutionMode;
+
+import io.vertx.ext.web.handler.BodyHandler;
+
+/**
+ * options of the router built by {@link RouterBuilder}
+ * 
+ * @author dinstone
+ */
+public class RouterOptions {
+
+    public static final ExecutionMode DEFAULT_EXECUTION_MODE = ExecutionMode.WORKER;
+
+    public static final long DEFAULT_RESPONSE_CACHE_SIZE = 64 * 1024 * 1024;
+
+    public static final int DEFAULT_COMPRESSION_LEVEL = 6;
+
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+
+    public static final List<String> DEFAULT_COMPRESSION_EXCLUDED_TYPES = Collections
+        .unmodifiableList(Arrays.asList("image/", "video/", "audio/", "application/zip", "application/gzip",
+            "application/octet-stream"));
+
+    public static final int DEFAULT_CORS_MAX_AGE = 1800;
+
+    private ExecutionMode executionMode = DEFAULT_EXECUTION_MODE;
+
+    private long timeout;
+
+    private int maxConcurrency;
+
+    private int retryAfter = 1;
+
+    private long responseCacheSize = DEFAULT_RESPONSE_CACHE_SIZE;
+
+    private boolean compressionSupported;
+
+    private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+
+    private int compressionMinSize = DEFAULT_COMPRESSION_MIN_SIZE;
+
+    private List<String> compressionExcludedTypes = DEFAULT_COMPRESSION_EXCLUDED_TYPES;
+
+    private int errorLogLimit = 10;
+
+    private long errorLogInterval = 60000;
+
+    private int errorLogSampleRate = 100;
+
+    private long bodyLimit = BodyHandler.DEFAULT_BODY_LIMIT;
+
+    private boolean fileUploads = true;
+
+    private String uploadsDirectory = BodyHandler.DEFAULT_UPLOADS_DIRECTORY;
+
+    private boolean deleteUploadedFilesOnEnd = BodyHandler.DEFAULT_DELETE_UPLOADED_FILES_ON_END;
+
+    private boolean headSupported = true;
+
+    private List<String> corsAllowedOrigins = Collections.emptyList();
+
+    private List<String> corsAllowedHeaders = Collections.emptyList();
+
+    private boolean corsAllowCredentials;
+
+    private int corsMaxAge = DEFAULT_CORS_MAX_AGE;
+
+    private boolean indexedDispatch;
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    /**
+     * set the default execution mode of blocking route methods, the route can override it by @Execution
+     * 
+     * @param executionMode
+     * @return
+     */
+    public RouterOptions setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * set the default request deadline in milliseconds, 0 means no deadline. the route can override it by @Timeout.
+     * the deadline of the streaming response ends when the stream starts.
+     * 
+     * @param timeout
+     * @return
+     */
+    public RouterOptions setTimeout(long timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * set the default max in-flight requests per route, 0 means unlimited. the route can override it by
+     * {@code @ConcurrencyLimit}
+     * 
+     * @param maxConcurrency
+     * @return
+     */
+    public RouterOptions setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    public int getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * set the Retry-After seconds of the rejected request
+     * 
+     * @param retryAfter
+     * @return
+     */
+    public RouterOptions setRetryAfter(int retryAfter) {
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    public long getResponseCacheSize() {
+        return responseCacheSize;
+    }
+
+    /**
+     * set the max bytes of the responses cached by {@code @CacheResponse} routes
+     * 
+     * @param responseCacheSize
+     * @return
+     */
+    public RouterOptions setResponseCacheSize(long responseCacheSize) {
+        this.responseCacheSize = responseCacheSize;
+        return this;
+    }
+
+    public boolean isCompressionSupported() {
+        return compressionSupported;
+    }
+
+    /**
+     * compress the response bodies of all routes, the route can override it by {@code @Compress}
+     * 
+     * @param compressionSupported
+     * @return
+     */
+    public RouterOptions setCompressionSupported(boolean compressionSupported) {
+        this.compressionSupported = compressionSupported;
+        return this;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * set the default compression level 1-9
+     * 
+     * @param compressionLevel
+     * @return
+     */
+    public RouterOptions setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    public int getCompressionMinSize() {
+        return compressionMinSize;
+    }
+
+    /**
+     * set the default min body bytes to compress, the smaller body is sent as is
+     * 
+     * @param compressionMinSize
+     * @return
+     */
+    public RouterOptions setCompressionMinSize(int compressionMinSize) {
+        this.compressionMinSize = compressionMinSize;
+        return this;
+    }
+
+    public List<String> getCompressionExcludedTypes() {
+        return compressionExcludedTypes;
+    }
+
+    /**
+     * set the content type prefixes that are never compressed, e.g. {@code image/}
+     * 
+     * @param compressionExcludedTypes
+     * @return
+     */
+    public RouterOptions setCompressionExcludedTypes(List<String> compressionExcludedTypes) {
+        this.compressionExcludedTypes = compressionExcludedTypes;
+        return this;
+    }
+
+    public int getErrorLogLimit() {
+        return errorLogLimit;
+    }
+
+    /**
+     * set the occurrences of an exception type on a route logged with stack trace in each error log interval
+     * 
+     * @param errorLogLimit
+     * @return
+     */
+    public RouterOptions setErrorLogLimit(int errorLogLimit) {
+        this.errorLogLimit = errorLogLimit;
+        return this;
+    }
+
+    public long getErrorLogInterval() {
+        return errorLogInterval;
+    }
+
+    /**
+     * set the error log interval in milliseconds, the suppressed count is logged when it rolls over. 0 means all
+     * exceptions are logged with stack trace
+     * 
+     * @param errorLogInterval
+     * @return
+     */
+    public RouterOptions setErrorLogInterval(long errorLogInterval) {
+        this.errorLogInterval = errorLogInterval;
+        return this;
+    }
+
+    public int getErrorLogSampleRate() {
+        return errorLogSampleRate;
+    }
+
+    /**
+     * log one of every sample rate suppressed exceptions without stack trace, 0 means no sampling
+     * 
+     * @param errorLogSampleRate
+     * @return
+     */
+    public RouterOptions setErrorLogSampleRate(int errorLogSampleRate) {
+        this.errorLogSampleRate = errorLogSampleRate;
+        return this;
+    }
+
+    public long getBodyLimit() {
+        return bodyLimit;
+    }
+
+    /**
+     * set the default max body bytes, the request over it is rejected with 413. -1 means unlimited. the route can
+     * override it by {@code @BodyLimit}
+     * 
+     * @param bodyLimit
+     * @return
+     */
+    public RouterOptions setBodyLimit(long bodyLimit) {
+        this.bodyLimit = bodyLimit;
+        return this;
+    }
+
+    public boolean isFileUploads() {
+        return fileUploads;
+    }
+
+    /**
+     * handle the file uploads of multipart body, or drop them
+     * 
+     * @param fileUploads
+     * @return
+     */
+    public RouterOptions setFileUploads(boolean fileUploads) {
+        this.fileUploads = fileUploads;
+        return this;
+    }
+
+    public String getUploadsDirectory() {
+        return uploadsDirectory;
+    }
+
+    public RouterOptions setUploadsDirectory(String uploadsDirectory) {
+        this.uploadsDirectory = uploadsDirectory;
+        return this;
+    }
+
+    public boolean isDeleteUploadedFilesOnEnd() {
+        return deleteUploadedFilesOnEnd;
+    }
+
+    public RouterOptions setDeleteUploadedFilesOnEnd(boolean deleteUploadedFilesOnEnd) {
+        this.deleteUploadedFilesOnEnd = deleteUploadedFilesOnEnd;
+        return this;
+    }
+
+    public boolean isHeadSupported() {
+        return headSupported;
+    }
+
+    /**
+     * answer the HEAD request by the GET route of the same path, the result is not encoded. the {@code @Head} route of
+     * the web handler wins.
+     * 
+     * @param headSupported
+     * @return
+     */
+    public RouterOptions setHeadSupported(boolean headSupported) {
+        this.headSupported = headSupported;
+        return this;
+    }
+
+    public List<String> getCorsAllowedOrigins() {
+        return corsAllowedOrigins;
+    }
+
+    /**
+     * set the origins allowed by CORS, e.g. {@code https://example.com}, {@code *} allows any origin. CORS is disabled
+     * if it's empty.
+     * 
+     * @param corsAllowedOrigins
+     * @return
+     */
+    public RouterOptions setCorsAllowedOrigins(List<String> corsAllowedOrigins) {
+        this.corsAllowedOrigins = corsAllowedOrigins;
+        return this;
+    }
+
+    public List<String> getCorsAllowedHeaders() {
+        return corsAllowedHeaders;
+    }
+
+    /**
+     * set the request headers allowed by CORS preflight, the Content-Type is allowed for the routes with body
+     * 
+     * @param corsAllowedHeaders
+     * @return
+     */
+    public RouterOptions setCorsAllowedHeaders(List<String> corsAllowedHeaders) {
+        this.corsAllowedHeaders = corsAllowedHeaders;
+        return this;
+    }
+
+    public boolean isCorsAllowCredentials() {
+        return corsAllowCredentials;
+    }
+
+    /**
+     * allow the credentials of the CORS request, it's not allowed for the {@code *} origin
+     * 
+     * @param corsAllowCredentials
+     * @return
+     */
+    public RouterOptions setCorsAllowCredentials(boolean corsAllowCredentials) {
+        this.corsAllowCredentials = corsAllowCredentials;
+        return this;
+    }
+
+    public int getCorsMaxAge() {
+        return corsMaxAge;
+    }
+
+    /**
+     * set the seconds the preflight response can be cached by the browser, -1 means not sent
+     * 
+     * @param corsMaxAge
+     * @return
+     */
+    public RouterOptions setCorsMaxAge(int corsMaxAge) {
+        this.corsMaxAge = corsMaxAge;
+        return this;
+    }
+
+    public boolean isIndexedDispatch() {
+        return indexedDispatch;
+    }
+
+    /**
+     * dispatch the request of the exact and templated paths by a radix tree instead of trying the routes in order,
+     * the regex routes stay on the router and are tried after the indexed routes.
+     * 
+     * @param indexedDispatch
+     * @return
+     */
+    public RouterOptions setIndexedDispatch(boolean indexedDispatch) {
+        this.indexedDispatch = indexedDispatch;
+        return this;
+    }
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web;
+
+/**
+ * the result of {@code @ETag} route can supply its version, the version is used as the entity tag and the result is
+ * not encoded if the client has it.
+ * 
+ * @author dinstone
+ */
+public interface Versioned {
+
+    /**
+     * @return the version of the result, it changes when the content changes
+     */
+    String version();
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * compress the response body by gzip or deflate as the client accepts, it overrides the compression of the router
+ * options
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Compress {
+
+    /**
+     * enable or disable the compression of the route
+     * 
+     * @return
+     */
+    boolean value() default true;
+
+    /**
+     * compression level 1-9, -1 means the level of the router options
+     * 
+     * @return
+     */
+    int level() default -1;
+
+    /**
+     * min body bytes to compress, -1 means the min size of the router options
+     * 
+     * @return
+     */
+    int minSize() default -1;
+}
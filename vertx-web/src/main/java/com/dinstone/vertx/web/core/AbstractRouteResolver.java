@@ -17,19 +17,26 @@
 package com.dinstone.vertx.web.core;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 
+import com.dinstone.vertx.web.ConcurrencyLimiter;
 import com.dinstone.vertx.web.ExceptionHandler;
 import com.dinstone.vertx.web.MessageConverter;
 import com.dinstone.vertx.web.RouteResolver;
-import com.dinstone.vertx.web.model.Argument;
+import com.dinstone.vertx.web.Versioned;
 import com.dinstone.vertx.web.model.RouteDefinition;
-import com.dinstone.vertx.web.util.Assert;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.http.Cookie;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
@@ -38,13 +45,15 @@ import io.vertx.core.impl.logging.LoggerFactory;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
-import io.vertx.ext.web.Session;
-import io.vertx.ext.web.handler.BodyHandler;
 
 public abstract class AbstractRouteResolver implements RouteResolver {
 
     private final static Logger LOG = LoggerFactory.getLogger(AbstractRouteResolver.class);
 
+    private static final String CACHE_KEY = ResponseCache.class.getName();
+
+    private static final String APPLICATION_JSON = "application/json";
+
     @Override
     public void resolve(RouterContext routerContext, Router router, Object service) {
         List<RouteDefinition> definitions = parseRouteDefinitions(service);
@@ -52,17 +61,29 @@ public abstract class AbstractRouteResolver implements RouteResolver {
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Registering " + definition);
             }
+            routerContext.addRouteDefinition(definition);
 
+            // answer HEAD by the GET route unless the handler routes it
+            boolean headable = isHeadable(definition, definitions, routerContext);
             Route route = null;
             if (definition.pathIsRegex()) {
                 route = router.routeWithRegex(definition.getRoutePath());
             } else {
-                route = router.route(definition.getRoutePath());
+                Router target = getRouter(router, definition, headable, routerContext);
+                PathTemplate template = routerContext.createPathTemplate(definition);
+                if (template == null) {
+                    route = target.route(definition.getRoutePath());
+                } else {
+                    route = templateRoute(target, template, routeMethods(definition, headable), routerContext);
+                }
             }
             // http method setting
             if (definition.getHttpMethod() != null) {
                 route.method(HttpMethod.valueOf(definition.getHttpMethod()));
             }
+            if (headable) {
+                route.method(HttpMethod.HEAD);
+            }
             // only register if request with body
             if (definition.hasBody() && definition.getConsumes() != null) {
                 for (String item : definition.getConsumes()) {
@@ -77,18 +98,65 @@ public abstract class AbstractRouteResolver implements RouteResolver {
                 }
             }
 
+            MethodInvoker invoker = createInvoker(service, definition);
+            routerContext.resolveMessageConverters(definition);
+            routerContext.createResponseCompressor(definition);
+            ArgumentBinder binder = ArgumentBinder.compile(definition, routerContext);
+
+            // cached response is written before admission control
+            if (isCacheable(definition, binder)) {
+                route.handler(cacheHandler(binder, definition, routerContext));
+            }
+
+            // hold the streaming body until the route method reads it
+            boolean streamingBody = ArgumentBinder.isStreamingBody(definition);
+            if (streamingBody) {
+                route.handler(context -> {
+                    HttpServerRequest request = context.request();
+                    request.pause();
+                    // drain the unread body if the response ends first
+                    context.addEndHandler(ar -> {
+                        if (!request.isEnded()) {
+                            request.resume();
+                        }
+                    });
+                    context.next();
+                });
+            }
+
+            // reject the oversized body by its Content-Length before admission control
+            long bodyLimit = routerContext.getBodyLimit(definition);
+            if (definition.hasBody() && bodyLimit >= 0) {
+                route.handler(new BodyLimitHandler(bodyLimit));
+            }
+
+            // admission control before any buffering and binding
+            boolean dispatched = !isVoid(definition.getReturnType());
+            ConcurrencyLimiter limiter = routerContext.createConcurrencyLimiter(definition, dispatched);
+            if (limiter != null) {
+                route.handler(new ConcurrencyLimitHandler(limiter, routerContext.getRouterOptions().getRetryAfter()));
+            }
+
+            // request deadline covers the body reading
+            long timeout = getTimeout(definition, routerContext);
+            if (timeout > 0) {
+                route.handler(new DeadlineHandler(timeout, 503));
+            }
+
             // add BodyHandler in case request has a body
-            if (definition.hasBody()) {
-                route.handler(BodyHandler.create());
+            if (definition.hasBody() && !streamingBody) {
+                route.handler(routerContext.getBodyHandler(definition));
             }
 
             Handler<RoutingContext> handler;
             if (isVoid(definition.getReturnType())) {
-                handler = voidHandler(service, definition, routerContext);
+                handler = voidHandler(invoker, binder, definition, routerContext);
+            } else if (isSingleFlight(definition, binder)) {
+                handler = singleFlightHandler(invoker, binder, definition, routerContext);
             } else if (isFuture(definition.getReturnType())) {
-                handler = futureHandler(service, definition, routerContext);
+                handler = futureHandler(invoker, binder, definition, routerContext);
             } else {
-                handler = blockHandler(service, definition, routerContext);
+                handler = blockHandler(invoker, binder, definition, routerContext);
             }
 
             route.handler(handler);
@@ -97,44 +165,204 @@ public abstract class AbstractRouteResolver implements RouteResolver {
 
     protected abstract List<RouteDefinition> parseRouteDefinitions(Object service);
 
-    private static Handler<RoutingContext> voidHandler(final Object service, final RouteDefinition definition,
+    /**
+     * create the invoker of the route method, the generated route resolver calls the method directly.
+     * 
+     * @param service
+     * @param definition
+     * @return
+     */
+    protected MethodInvoker createInvoker(Object service, RouteDefinition definition) {
+        return MethodInvoker.create(service, definition.getMethod());
+    }
+
+    /**
+     * get the public route method by its erased parameter types, used by the generated route resolver.
+     * 
+     * @param clazz
+     * @param name
+     * @param parameterTypes
+     * @return
+     */
+    protected static Method getMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("route method not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * get the method declared by the class, used by the generated route resolver to read the parameter names of the
+     * interface and super class methods as the reflective resolver does.
+     * 
+     * @param clazz
+     * @param name
+     * @param parameterTypes
+     * @return
+     */
+    protected static Method getDeclaredMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            return clazz.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("route method not found: " + clazz.getName() + "." + name, e);
+        }
+    }
+
+    /**
+     * the indexed route is registered on the leaf router of its path
+     */
+    private static Router getRouter(Router router, RouteDefinition definition, boolean headable,
+            RouterContext routerContext) {
+        RouteIndex routeIndex = routerContext.getRouteIndex();
+        if (routeIndex == null || !RouteIndex.isIndexable(definition)) {
+            return router;
+        }
+
+        return routeIndex.getRouter(definition.getRoutePath(), routeMethods(definition, headable));
+    }
+
+    private static List<HttpMethod> routeMethods(RouteDefinition definition, boolean headable) {
+        List<HttpMethod> methods = new ArrayList<>(2);
+        if (definition.getHttpMethod() != null) {
+            methods.add(HttpMethod.valueOf(definition.getHttpMethod()));
+        }
+        if (headable) {
+            methods.add(HttpMethod.HEAD);
+        }
+        return methods;
+    }
+
+    /**
+     * the template route is tried only if the template matches the path, the request continues on the router if not.
+     * the gate is scoped to the methods and the literal prefix of the template, so the other requests skip the match.
+     */
+    private static Route templateRoute(Router router, PathTemplate template, List<HttpMethod> methods,
             RouterContext routerContext) {
+        Router templateRouter = Router.router(routerContext.getVertx());
+        String prefix = template.getPrefix();
+        Route gate = prefix.isEmpty() ? router.route() : router.route(prefix + "/*");
+        for (HttpMethod method : methods) {
+            gate.method(method);
+        }
+        gate.handler(context -> {
+            if (template.match(context)) {
+                templateRouter.handleContext(context);
+            } else {
+                context.next();
+            }
+        });
+        return templateRouter.route();
+    }
+
+    private static long getTimeout(RouteDefinition definition, RouterContext routerContext) {
+        if (definition.getTimeout() != null) {
+            return definition.getTimeout();
+        }
+        return routerContext.getRouterOptions().getTimeout();
+    }
+
+    private static Handler<RoutingContext> voidHandler(final MethodInvoker invoker, final ArgumentBinder binder,
+            final RouteDefinition definition, final RouterContext routerContext) {
 
         return context -> {
             try {
-                Object[] args = prepareArguments(context, definition, routerContext);
+                Object[] args = binder.bind(context);
 
                 String acceptableContentType = context.getAcceptableContentType();
                 if (acceptableContentType != null) {
                     context.response().putHeader("Content-Type", acceptableContentType);
                 }
 
-                definition.getMethod().invoke(service, args);
+                invoker.invoke(args);
             } catch (Throwable e) {
                 handleException(e, context, definition, routerContext);
             }
         };
     }
 
-    private static Handler<RoutingContext> futureHandler(final Object service, final RouteDefinition definition,
-            RouterContext routerContext) {
+    private static Handler<RoutingContext> futureHandler(final MethodInvoker invoker, final ArgumentBinder binder,
+            final RouteDefinition definition, final RouterContext routerContext) {
 
         return context -> {
             try {
-                Object[] args = prepareArguments(context, definition, routerContext);
-                Object result = definition.getMethod().invoke(service, args);
+                Object[] args = binder.bind(context);
+                Object result = invoker.invoke(args);
 
                 Future<?> future = (Future<?>) result;
                 // wait for future to complete
-                future.onComplete(ar -> {
-                    if (ar.succeeded()) {
+                future.onComplete(ar -> handleResult(ar, context, definition, routerContext));
+            } catch (Throwable e) {
+                handleException(e, context, definition, routerContext);
+            }
+        };
+    }
+
+    private static Handler<RoutingContext> blockHandler(final MethodInvoker invoker, final ArgumentBinder binder,
+            final RouteDefinition definition, final RouterContext routerContext) {
+
+        final BlockingExecutor executor = routerContext.getBlockingExecutor(definition);
+        return context -> {
+            // watch the connection before queuing, the work is skipped if the client is gone
+            CancellationToken token = CancellationToken.of(context);
+            executor.executeBlocking(context, promise -> {
+                if (token.isCancelled()) {
+                    promise.complete();
+                    return;
+                }
+
+                try {
+                    Object[] args = binder.bind(context);
+                    Object result = invoker.invoke(args);
+                    promise.complete(result);
+                } catch (Throwable e) {
+                    promise.fail(e);
+                }
+            }, res -> {
+                if (token.isCancelled()) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("drop the result of cancelled request for " + definition);
+                    }
+                    return;
+                }
+
+                handleResult(res, context, definition, routerContext);
+            });
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Handler<RoutingContext> singleFlightHandler(final MethodInvoker invoker,
+            final ArgumentBinder binder, final RouteDefinition definition, final RouterContext routerContext) {
+
+        final SingleFlight singleFlight = new SingleFlight();
+        final boolean future = isFuture(definition.getReturnType());
+        final BlockingExecutor executor = future ? null : routerContext.getBlockingExecutor(definition);
+        return context -> {
+            try {
+                Object[] args = binder.bind(context);
+                Object key = SingleFlight.key(args, context.getAcceptableContentType());
+                Context waiter = Vertx.currentContext();
+                singleFlight.execute(key, () -> {
+                    if (future) {
+                        return (Future<Object>) invoker.invoke(args);
+                    }
+
+                    Promise<Object> promise = Promise.promise();
+                    executor.executeBlocking(context, p -> {
                         try {
-                            handleResponse(future.result(), context, definition, routerContext);
+                            p.complete(invoker.invoke(args));
                         } catch (Throwable e) {
-                            handleException(e, context, definition, routerContext);
+                            p.fail(e);
                         }
+                    }, promise);
+                    return promise.future();
+                }).onComplete(ar -> {
+                    // the shared call may complete on the context of another request
+                    if (waiter == null || waiter == Vertx.currentContext()) {
+                        handleResult(ar, context, definition, routerContext);
                     } else {
-                        handleException(future.cause(), context, definition, routerContext);
+                        waiter.runOnContext(v -> handleResult(ar, context, definition, routerContext));
                     }
                 });
             } catch (Throwable e) {
@@ -143,214 +371,267 @@ public abstract class AbstractRouteResolver implements RouteResolver {
         };
     }
 
-    private static Handler<RoutingContext> blockHandler(final Object service, final RouteDefinition definition,
+    private static Handler<RoutingContext> cacheHandler(final ArgumentBinder binder, final RouteDefinition definition,
             final RouterContext routerContext) {
 
-        return context -> context.vertx().executeBlocking(promise -> {
+        final ResponseCache responseCache = routerContext.getResponseCache();
+        final ResponseCompressor compressor = routerContext.getResponseCompressor(definition);
+        return context -> {
             try {
-                Object[] args = prepareArguments(context, definition, routerContext);
-                Object result = definition.getMethod().invoke(service, args);
-                promise.complete(result);
+                Object key = binder.key(context, context.getAcceptableContentType());
+                ResponseCache.Entry entry = responseCache.get(key);
+                if (entry != null) {
+                    writeResponse(context, entry, compressor);
+                    return;
+                }
+
+                // the encoded response is cached by the key
+                context.put(CACHE_KEY, key);
+                context.next();
             } catch (Throwable e) {
-                promise.fail(e);
+                handleException(e, context, definition, routerContext);
             }
-        }, false, res -> {
-            if (res.succeeded()) {
-                try {
-                    handleResponse(res.result(), context, definition, routerContext);
-                } catch (Throwable e) {
-                    handleException(e, context, definition, routerContext);
-                }
-            } else {
-                handleException(res.cause(), context, definition, routerContext);
+        };
+    }
+
+    private static void handleResult(AsyncResult<?> ar, RoutingContext context, RouteDefinition definition,
+            RouterContext routerContext) {
+        if (ar.succeeded()) {
+            try {
+                handleResponse(ar.result(), context, definition, routerContext);
+            } catch (Throwable e) {
+                handleException(e, context, definition, routerContext);
             }
-        });
+        } else {
+            handleException(ar.cause(), context, definition, routerContext);
+        }
     }
 
     private static void handleResponse(Object result, RoutingContext context, RouteDefinition definition,
             RouterContext routerContext) throws Throwable {
         if (!context.response().ended()) {
-            MessageConverter<Object> messageConverter = null;
-            String contentType = context.getAcceptableContentType();
-            if (contentType != null) {
-                messageConverter = routerContext.getMessageConverter(contentType);
-            } else {
-                messageConverter = routerContext.getMessageConverter(definition.getProduces());
+            if (ChunkedResponseWriter.isStreaming(result)) {
+                handleStreamingResponse(result, context, definition, routerContext);
+                return;
             }
 
-            if (messageConverter != null) {
-                messageConverter.write(result, context);
-            } else {
+            MessageConverter<Object> messageConverter = routerContext.getProduceConverter(definition,
+                context.getAcceptableContentType());
+
+            if (messageConverter == null) {
                 throw new IllegalStateException("can't find message converter for " + definition);
             }
-        }
-    }
 
-    @SuppressWarnings("unchecked")
-    private static void handleException(Throwable e, RoutingContext context, final RouteDefinition definition,
-            RouterContext routerContext) {
-        if (e instanceof ExecutionException || e instanceof InvocationTargetException) {
-            e = e.getCause();
-        }
-        LOG.error("handling exception for " + definition, e);
+            HttpServerResponse response = context.response();
+            // the version of the result is the entity tag, the result is not encoded if the client has it
+            String etag = null;
+            if (definition.isEtag() && result instanceof Versioned) {
+                etag = EntityTag.of(((Versioned) result).version());
+                if (response.getStatusCode() == 200 && isNotModified(context, etag)) {
+                    response.putHeader(HttpHeaders.ETAG, etag).setStatusCode(304).end();
+                    return;
+                }
+            }
 
-        try {
-            ExceptionHandler<Throwable> handler = (ExceptionHandler<Throwable>) routerContext
-                .getExceptionHandler(e.getClass());
-            handler.handle(e, context);
-        } catch (Throwable ex) {
-            LOG.warn("handled exception failed : " + ex.getMessage(), e);
-        }
+            // the HEAD response has the headers known without encoding the result
+            if (isHead(context)) {
+                if (etag != null) {
+                    response.putHeader(HttpHeaders.ETAG, etag);
+                }
+                if (routerContext.getResponseCompressor(definition) != null) {
+                    response.headers().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                }
+                response.putHeader(HttpHeaders.CONTENT_TYPE, messageConverter.mediaType()).end();
+                return;
+            }
 
-        if (!context.response().ended()) {
-            context.response().setStatusCode(503).end("The service is unavailable, " + e.getMessage());
-        }
-    }
+            Buffer body = messageConverter.encode(result);
+            if (body == null) {
+                messageConverter.write(result, context);
+                return;
+            }
 
-    private static Object[] prepareArguments(RoutingContext context, RouteDefinition definition,
-            RouterContext routerContext) throws Exception {
-        List<Argument> parameters = definition.getArguments();
-        Object[] arguments = new Object[parameters.size()];
-        for (Argument parameter : parameters) {
-            switch (parameter.getArgType()) {
-                case CONTEXT:
-                    arguments[parameter.getParamIndex()] = getContextValue(definition, context, parameter);
-                    break;
-                case COOKIE:
-                    Cookie cookie = context.request().getCookie(parameter.getParamName());
-                    arguments[parameter.getParamIndex()] = cookie == null ? null : cookie.getValue();
-                case HEADER:
-                    arguments[parameter.getParamIndex()] = context.request().getHeader(parameter.getParamName());
-                    break;
-                case PATH:
-                    String pathParam = context.request().getParam(parameter.getParamName());
-                    arguments[parameter.getParamIndex()] = convertValue(parameter.getParamClazz(), pathParam);
-                    break;
-                case QUERY:
-                    String queryParam = context.request().getParam(parameter.getParamName());
-                    arguments[parameter.getParamIndex()] = convertValue(parameter.getParamClazz(), queryParam);
-                    break;
-                case FORM:
-                    String formParam = context.request().getParam(parameter.getParamName());
-                    arguments[parameter.getParamIndex()] = convertValue(parameter.getParamClazz(), formParam);
-                    break;
-                case MATRIX:
-                    String matrixParam = getMatrixParam(context.request(), parameter.getParamName());
-                    arguments[parameter.getParamIndex()] = convertValue(parameter.getParamClazz(), matrixParam);
-                    break;
-                case BODY:
-                    arguments[parameter.getParamIndex()] = convertBean(definition, context, parameter, routerContext);
-                    break;
-                default:
-                    break;
+            if (definition.isEtag() && etag == null) {
+                etag = EntityTag.of(body);
             }
+            ResponseCache.Entry entry = new ResponseCache.Entry(body, messageConverter.mediaType(), etag,
+                definition.getCacheTtl());
+            ResponseCompressor compressor = routerContext.getResponseCompressor(definition);
+            Object cacheKey = context.get(CACHE_KEY);
+            if (cacheKey != null && response.getStatusCode() == 200) {
+                // the cached entry keeps the compressed body of the negotiated encoding
+                String encoding = compressor == null ? null
+                        : compressor.negotiate(context.request(), entry.getContentType(), body.length());
+                if (encoding != null) {
+                    entry = entry.withEncoding(encoding, compressor.compress(body, encoding));
+                }
+                routerContext.getResponseCache().put(cacheKey, entry);
+            }
+            writeResponse(context, entry, compressor);
         }
-        return arguments;
     }
 
-    private static String getMatrixParam(HttpServerRequest request, String paramName) {
-        String[] items = request.uri().split(";");
-        for (String item : items) {
-            String[] nameValue = item.split("=");
-            if (nameValue.length == 2 && nameValue[0].equals(paramName)) {
-                return nameValue[1];
+    private static void handleStreamingResponse(Object result, RoutingContext context, RouteDefinition definition,
+            RouterContext routerContext) {
+        String contentType = context.getAcceptableContentType();
+        MessageConverter<Object> messageConverter;
+        if (contentType != null && contentType.startsWith(ChunkedResponseWriter.NDJSON)) {
+            // the elements of ndjson are encoded by the json converter
+            messageConverter = routerContext.getMessageConverter(APPLICATION_JSON);
+        } else {
+            messageConverter = routerContext.getProduceConverter(definition, contentType);
+            if (messageConverter != null) {
+                contentType = messageConverter.mediaType();
             }
         }
-
-        return null;
-    }
-
-    private static Object convertValue(Class<?> paramClazz, String value) {
-        if (value == null) {
-            return null;
+        if (messageConverter == null) {
+            throw new IllegalStateException("can't find message converter for " + definition);
         }
 
-        if (paramClazz.equals(String.class)) {
-            return value;
+        // the HEAD response has the headers only, the stream is discarded without encoding
+        if (isHead(context)) {
+            ChunkedResponseWriter.discard(result);
+            context.response().putHeader(HttpHeaders.CONTENT_TYPE, contentType).end();
+            return;
         }
 
-        // primitive types need to be cast differently
-        if (paramClazz.isAssignableFrom(boolean.class) || paramClazz.isAssignableFrom(Boolean.class)) {
-            return Boolean.valueOf(value);
-        }
+        // the deadline covers producing the result, the stream is written as long as the client reads it
+        DeadlineHandler.cancel(context);
 
-        if (paramClazz.isAssignableFrom(byte.class) || paramClazz.isAssignableFrom(Byte.class)) {
-            return Byte.valueOf(value);
-        }
+        // the iterator of blocking route may block, pull it on the executor of the route
+        BlockingExecutor executor = isFuture(definition.getReturnType()) ? null
+                : routerContext.getBlockingExecutor(definition);
+        new ChunkedResponseWriter(context, messageConverter, contentType, executor, e -> {
+            if (!context.response().headWritten()) {
+                handleException(e, context, definition, routerContext);
+                return;
+            }
+            // the response is partially written, abort it
+            routerContext.getErrorLogger().log(definition, e);
+            context.request().connection().close();
+        }).write(result);
+    }
 
-        if (paramClazz.isAssignableFrom(char.class) || paramClazz.isAssignableFrom(Character.class)) {
-            Assert.isTrue(value.length() != 0, "Expected Character but got: null");
-            return value.charAt(0);
+    private static void writeResponse(RoutingContext context, ResponseCache.Entry entry,
+            ResponseCompressor compressor) {
+        HttpServerResponse response = context.response();
+        Buffer body = entry.getBody();
+        String encoding = null;
+        if (compressor != null) {
+            response.headers().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            encoding = compressor.negotiate(context.request(), entry.getContentType(), body.length());
         }
 
-        if (paramClazz.isAssignableFrom(short.class) || paramClazz.isAssignableFrom(Short.class)) {
-            return Short.valueOf(value);
+        String etag = entry.getEtag();
+        if (etag != null) {
+            if (encoding != null) {
+                etag = EntityTag.of(etag, encoding);
+            }
+            response.putHeader(HttpHeaders.ETAG, etag);
+            if (response.getStatusCode() == 200 && isNotModified(context, etag)) {
+                response.setStatusCode(304).end();
+                return;
+            }
         }
 
-        if (paramClazz.isAssignableFrom(int.class) || paramClazz.isAssignableFrom(Integer.class)) {
-            return Integer.valueOf(value);
+        boolean head = isHead(context);
+        if (encoding != null) {
+            if (encoding.equals(entry.getEncoding())) {
+                body = entry.getEncodedBody();
+            } else {
+                // the HEAD response doesn't compress the body only for its length
+                body = head ? null : compressor.compress(body, encoding);
+            }
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
         }
+        response.putHeader(HttpHeaders.CONTENT_TYPE, entry.getContentType());
+        if (head) {
+            if (body != null) {
+                response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(body.length()));
+            }
+            response.end();
+        } else {
+            response.end(body);
+        }
+    }
+
+    private static boolean isNotModified(RoutingContext context, String etag) {
+        return EntityTag.matches(context.request().getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+    }
 
-        if (paramClazz.isAssignableFrom(long.class) || paramClazz.isAssignableFrom(Long.class)) {
-            return Long.valueOf(value);
+    @SuppressWarnings("unchecked")
+    private static void handleException(Throwable e, RoutingContext context, final RouteDefinition definition,
+            RouterContext routerContext) {
+        if (e instanceof ExecutionException || e instanceof InvocationTargetException) {
+            e = e.getCause();
         }
+        routerContext.getErrorLogger().log(definition, e);
 
-        if (paramClazz.isAssignableFrom(float.class) || paramClazz.isAssignableFrom(Float.class)) {
-            return Float.valueOf(value);
+        // the response is ended by the handler or the request deadline, drop the late exception
+        if (context.response().ended()) {
+            return;
         }
 
-        if (paramClazz.isAssignableFrom(double.class) || paramClazz.isAssignableFrom(Double.class)) {
-            return Double.valueOf(value);
+        try {
+            ExceptionHandler<Throwable> handler = (ExceptionHandler<Throwable>) routerContext
+                .getExceptionHandler(e.getClass());
+            handler.handle(e, context);
+        } catch (Throwable ex) {
+            LOG.warn("handled exception failed : " + ex.getMessage(), e);
         }
 
-        return null;
+        if (!context.response().ended()) {
+            routerContext.getErrorRenderer().render(503, e).write(context);
+        }
     }
 
-    private static Object convertBean(RouteDefinition definition, RoutingContext context, Argument parameter,
-            RouterContext routerContext) throws Exception {
-        String contentType = context.request().getHeader("Content-Type");
-        MessageConverter<Object> converter = routerContext.getMessageConverter(contentType);
-        if (converter == null) {
-            converter = routerContext.getMessageConverter(definition.getConsumes());
+    /**
+     * the GET route answers the HEAD request if there is no {@code @Head} route of the same path
+     */
+    private static boolean isHeadable(RouteDefinition definition, List<RouteDefinition> definitions,
+            RouterContext routerContext) {
+        if (!"GET".equals(definition.getHttpMethod()) || !routerContext.getRouterOptions().isHeadSupported()) {
+            return false;
         }
-
-        if (converter == null) {
-            throw new IllegalStateException("no message convert for " + parameter);
+        for (RouteDefinition other : definitions) {
+            if ("HEAD".equals(other.getHttpMethod()) && other.getRoutePath().equals(definition.getRoutePath())) {
+                return false;
+            }
         }
-        return converter.read(parameter.getParamClazz(), context);
+        return true;
     }
 
-    private static Object getContextValue(RouteDefinition definition, RoutingContext context, Argument parameter) {
-        Class<?> paramClazz = parameter.getParamClazz();
-        // vert.x context
-        if (paramClazz.isAssignableFrom(HttpServerResponse.class)) {
-            return context.response();
-        }
+    private static boolean isHead(RoutingContext context) {
+        return HttpMethod.HEAD.equals(context.request().method());
+    }
 
-        if (paramClazz.isAssignableFrom(HttpServerRequest.class)) {
-            return context.request();
-        }
+    private static boolean isSingleFlight(RouteDefinition definition, ArgumentBinder binder) {
+        return definition.isSingleFlight() && isShareable("@SingleFlight", definition, binder);
+    }
 
-        if (paramClazz.isAssignableFrom(RoutingContext.class)) {
-            return context;
-        }
+    private static boolean isCacheable(RouteDefinition definition, ArgumentBinder binder) {
+        return definition.getCacheTtl() > 0 && !isVoid(definition.getReturnType())
+                && isShareable("@CacheResponse", definition, binder);
+    }
 
-        // internal context / reflection of route definition
-        if (paramClazz.isAssignableFrom(RouteDefinition.class)) {
-            return definition;
+    /**
+     * the response can be shared among requests only for GET route whose arguments all come from the request values,
+     * the context and body can't be shared.
+     */
+    private static boolean isShareable(String feature, RouteDefinition definition, ArgumentBinder binder) {
+        if (!"GET".equals(definition.getHttpMethod())) {
+            LOG.warn("ignore " + feature + " of non GET route " + definition);
+            return false;
         }
-
-        if (paramClazz.isAssignableFrom(Session.class)) {
-            return context.session();
+        if (ChunkedResponseWriter.isStreaming(definition.getReturnType())) {
+            LOG.warn("ignore " + feature + " of streaming route " + definition);
+            return false;
         }
-
-        // browse through context storage
-        Object item = context.get(parameter.getParamName());
-        if (item != null) {
-            return item;
+        if (!binder.isKeyable()) {
+            LOG.warn("ignore " + feature + " of route with context or body argument " + definition);
+            return false;
         }
-
-        throw new RuntimeException("can't provide @Context of type: " + paramClazz);
+        return true;
     }
 
     private static boolean isFuture(Class<?> returnType) {
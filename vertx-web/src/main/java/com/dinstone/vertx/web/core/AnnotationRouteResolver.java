@@ -21,37 +21,113 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 import com.dinstone.vertx.web.RouteResolver;
 import com.dinstone.vertx.web.annotation.BeanParam;
+import com.dinstone.vertx.web.annotation.BodyLimit;
+import com.dinstone.vertx.web.annotation.CacheResponse;
+import com.dinstone.vertx.web.annotation.Compress;
+import com.dinstone.vertx.web.annotation.ConcurrencyLimit;
 import com.dinstone.vertx.web.annotation.Consumes;
 import com.dinstone.vertx.web.annotation.Context;
 import com.dinstone.vertx.web.annotation.CookieParam;
 import com.dinstone.vertx.web.annotation.Delete;
+import com.dinstone.vertx.web.annotation.ETag;
+import com.dinstone.vertx.web.annotation.Execution;
 import com.dinstone.vertx.web.annotation.FormParam;
 import com.dinstone.vertx.web.annotation.Get;
+import com.dinstone.vertx.web.annotation.Head;
 import com.dinstone.vertx.web.annotation.HeaderParam;
 import com.dinstone.vertx.web.annotation.MatrixParam;
+import com.dinstone.vertx.web.annotation.Options;
+import com.dinstone.vertx.web.annotation.Patch;
 import com.dinstone.vertx.web.annotation.Path;
 import com.dinstone.vertx.web.annotation.PathParam;
 import com.dinstone.vertx.web.annotation.Post;
 import com.dinstone.vertx.web.annotation.Produces;
 import com.dinstone.vertx.web.annotation.Put;
 import com.dinstone.vertx.web.annotation.QueryParam;
+import com.dinstone.vertx.web.annotation.SingleFlight;
+import com.dinstone.vertx.web.annotation.Timeout;
+import com.dinstone.vertx.web.annotation.Trace;
 import com.dinstone.vertx.web.annotation.WebHandler;
+import com.dinstone.vertx.web.annotation.WorkerPool;
 import com.dinstone.vertx.web.model.ArgType;
 import com.dinstone.vertx.web.model.Argument;
 import com.dinstone.vertx.web.model.RouteDefinition;
 
 import io.vertx.core.impl.logging.Logger;
 import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.ext.web.Router;
 
 public class AnnotationRouteResolver extends AbstractRouteResolver implements RouteResolver {
 
     private final static Logger LOG = LoggerFactory.getLogger(AnnotationRouteResolver.class);
 
+    /**
+     * route annotations can be declared on the web handler type
+     */
+    private static final List<Class<? extends Annotation>> TYPE_ANNOTATIONS = Arrays.asList(Execution.class,
+        WorkerPool.class, Timeout.class, ConcurrencyLimit.class, ETag.class, Compress.class,
+        BodyLimit.class);
+
+    /**
+     * suffix of the route resolver generated by the vertx-web-processor for a web handler class
+     */
+    public static final String GENERATED_SUFFIX = "_RouteResolver";
+
+    /**
+     * the generated route resolver of the handler class, null means resolving by reflection
+     */
+    private static final ClassValue<RouteResolver> GENERATED_RESOLVERS = new ClassValue<RouteResolver>() {
+
+        @Override
+        protected RouteResolver computeValue(Class<?> type) {
+            return loadGeneratedResolver(type);
+        }
+    };
+
+    @Override
+    public void resolve(RouterContext routerContext, Router router, Object service) {
+        RouteResolver generated = GENERATED_RESOLVERS.get(service.getClass());
+        if (generated != null) {
+            generated.resolve(routerContext, router, service);
+        } else {
+            super.resolve(routerContext, router, service);
+        }
+    }
+
+    /**
+     * the generated route resolver is a top level class in the package of the handler class, e.g.
+     * {@code com.foo.Outer$Inner} is resolved by {@code com.foo.Outer_Inner_RouteResolver}.
+     * 
+     * @param handlerClassName
+     *        binary name of the handler class
+     * @return
+     */
+    public static String getGeneratedResolverName(String handlerClassName) {
+        return handlerClassName.replace('$', '_') + GENERATED_SUFFIX;
+    }
+
+    private static RouteResolver loadGeneratedResolver(Class<?> type) {
+        String resolverName = getGeneratedResolverName(type.getName());
+        try {
+            Class<?> resolverClass = Class.forName(resolverName, true, type.getClassLoader());
+            if (!RouteResolver.class.isAssignableFrom(resolverClass)) {
+                return null;
+            }
+            return (RouteResolver) resolverClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        } catch (Exception e) {
+            LOG.warn("can't create generated route resolver " + resolverName, e);
+            return null;
+        }
+    }
+
     @Override
     protected List<RouteDefinition> parseRouteDefinitions(Object service) {
         Class<? extends Object> clazz = service.getClass();
@@ -61,6 +137,7 @@ public class AnnotationRouteResolver extends AbstractRouteResolver implements Ro
         }
         Produces produces = getAnnotation(clazz, Produces.class);
         Consumes consumes = getAnnotation(clazz, Consumes.class);
+        List<Annotation> typeAnnotations = getTypeAnnotations(clazz);
 
         List<RouteDefinition> routeDefinitions = new LinkedList<>();
         for (final Method method : clazz.getMethods()) {
@@ -80,7 +157,8 @@ public class AnnotationRouteResolver extends AbstractRouteResolver implements Ro
                     continue;
                 }
 
-                RouteDefinition definition = parseRouteDefinition(webService, produces, consumes, method);
+                RouteDefinition definition = parseRouteDefinition(webService, produces, consumes, typeAnnotations,
+                    method);
                 if (definition != null) {
                     routeDefinitions.add(definition);
                 }
@@ -92,25 +170,38 @@ public class AnnotationRouteResolver extends AbstractRouteResolver implements Ro
         return routeDefinitions;
     }
 
-    private RouteDefinition parseRouteDefinition(WebHandler wh, Produces produces, Consumes consumes, Method method)
-            throws Throwable {
+    private RouteDefinition parseRouteDefinition(WebHandler wh, Produces produces, Consumes consumes,
+            List<Annotation> typeAnnotations, Method method) throws Throwable {
         String httpMethod = null;
         String methodPath = null;
         String[] mproduces = null;
         String[] mconsumes = null;
-        for (Annotation annotation : getAnnotations(method)) {
+        List<Annotation> methodAnnotations = getAnnotations(method);
+        for (Annotation annotation : methodAnnotations) {
             if (annotation instanceof Get) {
                 methodPath = ((Get) annotation).value();
-                httpMethod = annotation.annotationType().getSimpleName().toUpperCase();
+                httpMethod = httpMethod(httpMethod, annotation);
             } else if (annotation instanceof Post) {
                 methodPath = ((Post) annotation).value();
-                httpMethod = annotation.annotationType().getSimpleName().toUpperCase();
+                httpMethod = httpMethod(httpMethod, annotation);
             } else if (annotation instanceof Put) {
                 methodPath = ((Put) annotation).value();
-                httpMethod = annotation.annotationType().getSimpleName().toUpperCase();
+                httpMethod = httpMethod(httpMethod, annotation);
             } else if (annotation instanceof Delete) {
                 methodPath = ((Delete) annotation).value();
-                httpMethod = annotation.annotationType().getSimpleName().toUpperCase();
+                httpMethod = httpMethod(httpMethod, annotation);
+            } else if (annotation instanceof Patch) {
+                methodPath = ((Patch) annotation).value();
+                httpMethod = httpMethod(httpMethod, annotation);
+            } else if (annotation instanceof Head) {
+                methodPath = ((Head) annotation).value();
+                httpMethod = httpMethod(httpMethod, annotation);
+            } else if (annotation instanceof Options) {
+                methodPath = ((Options) annotation).value();
+                httpMethod = httpMethod(httpMethod, annotation);
+            } else if (annotation instanceof Trace) {
+                methodPath = ((Trace) annotation).value();
+                httpMethod = httpMethod(httpMethod, annotation);
             } else if (annotation instanceof Path) {
                 methodPath = ((Path) annotation).value();
             } else if (annotation instanceof Produces) {
@@ -135,6 +226,9 @@ public class AnnotationRouteResolver extends AbstractRouteResolver implements Ro
             definition.setHttpMethod(httpMethod);
             definition.setConsumes(mconsumes);
             definition.setProduces(mproduces);
+            // method annotations override type annotations
+            applyAnnotations(definition, typeAnnotations);
+            applyAnnotations(definition, methodAnnotations);
 
             definition.setArguments(methodParameters);
             definition.setReturnType(method.getReturnType());
@@ -145,6 +239,54 @@ public class AnnotationRouteResolver extends AbstractRouteResolver implements Ro
         return null;
     }
 
+    private static List<Annotation> getTypeAnnotations(Class<?> clazz) {
+        List<Annotation> annotations = new LinkedList<>();
+        for (Class<? extends Annotation> annotationType : TYPE_ANNOTATIONS) {
+            Annotation annotation = getAnnotation(clazz, annotationType);
+            if (annotation != null) {
+                annotations.add(annotation);
+            }
+        }
+        return annotations;
+    }
+
+    private static void applyAnnotations(RouteDefinition definition, List<Annotation> annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Execution) {
+                definition.setExecutionMode(((Execution) annotation).value());
+            } else if (annotation instanceof WorkerPool) {
+                WorkerPool workerPool = (WorkerPool) annotation;
+                definition.setWorkerPool(workerPool.value(), workerPool.size(), workerPool.maxExecuteTime());
+            } else if (annotation instanceof Timeout) {
+                definition.setTimeout(((Timeout) annotation).value());
+            } else if (annotation instanceof ConcurrencyLimit) {
+                definition.setMaxConcurrency(((ConcurrencyLimit) annotation).value());
+            } else if (annotation instanceof SingleFlight) {
+                definition.setSingleFlight(true);
+            } else if (annotation instanceof CacheResponse) {
+                definition.setCacheTtl(((CacheResponse) annotation).ttl());
+            } else if (annotation instanceof ETag) {
+                definition.setEtag(true);
+            } else if (annotation instanceof Compress) {
+                Compress compress = (Compress) annotation;
+                definition.setCompression(compress.value(), compress.level(), compress.minSize());
+            } else if (annotation instanceof BodyLimit) {
+                BodyLimit bodyLimit = (BodyLimit) annotation;
+                definition.setBodyLimit(bodyLimit.value(), bodyLimit.uploads());
+            }
+        }
+    }
+
+    /**
+     * the route can't have more than one http method annotation, the generated resolver rejects it too
+     */
+    private static String httpMethod(String httpMethod, Annotation annotation) {
+        if (httpMethod != null) {
+            throw new IllegalArgumentException("route has more than one http method annotation");
+        }
+        return annotation.annotationType().getSimpleName().toUpperCase();
+    }
+
     private static List<Annotation> getAnnotations(Method method) {
         List<Annotation> annotationSet = new LinkedList<>();
 
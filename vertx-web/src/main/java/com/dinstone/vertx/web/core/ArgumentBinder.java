@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import com.dinstone.vertx.web.MessageConverter;
+import com.dinstone.vertx.web.model.ArgType;
+import com.dinstone.vertx.web.model.Argument;
+import com.dinstone.vertx.web.model.RouteDefinition;
+import com.dinstone.vertx.web.util.Assert;
+
+import io.vertx.core.http.Cookie;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+import io.vertx.ext.web.Session;
+
+/**
+ * bind the request to the route method arguments, the extractor and converter of each argument are compiled once when
+ * the route is registered.
+ *
+ * @author dinstone
+ */
+public class ArgumentBinder {
+
+    @FunctionalInterface
+    interface ArgumentExtractor {
+
+        Object extract(RoutingContext context) throws Exception;
+    }
+
+    private final RouteDefinition definition;
+
+    private final ArgumentExtractor[] extractors;
+
+    private final ArgumentExtractor[] keyExtractors;
+
+    private ArgumentBinder(RouteDefinition definition, ArgumentExtractor[] extractors,
+            ArgumentExtractor[] keyExtractors) {
+        this.definition = definition;
+        this.extractors = extractors;
+        this.keyExtractors = keyExtractors;
+    }
+
+    public static ArgumentBinder compile(RouteDefinition definition, RouterContext routerContext) {
+        List<Argument> parameters = definition.getArguments();
+        ArgumentExtractor[] extractors = new ArgumentExtractor[parameters.size()];
+        ArgumentExtractor[] keyExtractors = new ArgumentExtractor[parameters.size()];
+        for (Argument parameter : parameters) {
+            extractors[parameter.getParamIndex()] = compile(definition, parameter, routerContext);
+            keyExtractors[parameter.getParamIndex()] = compileKey(parameter);
+        }
+        for (int i = 0; i < extractors.length; i++) {
+            if (extractors[i] == null) {
+                extractors[i] = context -> null;
+            }
+        }
+        return new ArgumentBinder(definition, extractors, keyExtractors);
+    }
+
+    public Object[] bind(RoutingContext context) throws Exception {
+        Object[] arguments = new Object[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            arguments[i] = extractors[i].extract(context);
+        }
+        return arguments;
+    }
+
+    /**
+     * the request key can be made only if all arguments come from the request values
+     * 
+     * @return
+     */
+    public boolean isKeyable() {
+        for (ArgumentExtractor keyExtractor : keyExtractors) {
+            if (keyExtractor == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * make the key of the request from the route, the raw argument values and the content type, the values are not
+     * converted.
+     * 
+     * @param context
+     * @param contentType
+     * @return
+     * @throws Exception
+     */
+    public Object key(RoutingContext context, String contentType) throws Exception {
+        Object[] values = new Object[keyExtractors.length + 2];
+        values[0] = definition;
+        for (int i = 0; i < keyExtractors.length; i++) {
+            values[i + 1] = keyExtractors[i].extract(context);
+        }
+        values[values.length - 1] = contentType;
+        return Arrays.asList(values);
+    }
+
+    private static ArgumentExtractor compileKey(Argument parameter) {
+        final String paramName = parameter.getParamName();
+        switch (parameter.getArgType()) {
+            case COOKIE:
+                return context -> {
+                    Cookie cookie = context.request().getCookie(paramName);
+                    return cookie == null ? null : cookie.getValue();
+                };
+            case HEADER:
+                return context -> context.request().getHeader(paramName);
+            case PATH:
+            case QUERY:
+            case FORM:
+                return context -> context.request().getParam(paramName);
+            case MATRIX:
+                return context -> getMatrixParam(context.request(), paramName);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * the route reads the body as {@link ReadStream} or {@link JsonParser} while it's arriving, the body is not
+     * buffered, the stream is paused until the route resumes it.
+     * 
+     * @param definition
+     * @return
+     */
+    public static boolean isStreamingBody(RouteDefinition definition) {
+        for (Argument argument : definition.getArguments()) {
+            if (argument.getArgType() == ArgType.BODY && (argument.getParamClazz() == ReadStream.class
+                    || argument.getParamClazz() == JsonParser.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ArgumentExtractor compile(RouteDefinition definition, Argument parameter,
+            RouterContext routerContext) {
+        final String paramName = parameter.getParamName();
+        final Function<String, Object> converter = valueConverter(parameter.getParamClazz());
+        switch (parameter.getArgType()) {
+            case CONTEXT:
+                return contextExtractor(definition, parameter);
+            case COOKIE:
+                return context -> {
+                    Cookie cookie = context.request().getCookie(paramName);
+                    return cookie == null ? null : cookie.getValue();
+                };
+            case HEADER:
+                return context -> context.request().getHeader(paramName);
+            case PATH:
+                ArgumentExtractor templateExtractor = templateExtractor(definition, parameter, routerContext);
+                if (templateExtractor != null) {
+                    return templateExtractor;
+                }
+                // falls through if the path parameter is not typed by the template
+            case QUERY:
+            case FORM:
+                return context -> {
+                    String value = context.request().getParam(paramName);
+                    return value == null ? null : converter.apply(value);
+                };
+            case MATRIX:
+                return context -> {
+                    String value = getMatrixParam(context.request(), paramName);
+                    return value == null ? null : converter.apply(value);
+                };
+            case BODY:
+                if (parameter.getParamClazz() == ReadStream.class) {
+                    return RoutingContext::request;
+                }
+                if (parameter.getParamClazz() == JsonParser.class) {
+                    return context -> JsonParser.newParser(context.request());
+                }
+                return context -> convertBean(definition, context, parameter, routerContext);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * the typed path parameter is parsed by the path template while matching, the route method gets the parsed value
+     */
+    private static ArgumentExtractor templateExtractor(RouteDefinition definition, Argument parameter,
+            RouterContext routerContext) {
+        PathTemplate template = routerContext.getPathTemplate(definition);
+        Class<?> type = template == null ? null : template.getParamType(parameter.getParamName());
+        if (type == null) {
+            return null;
+        }
+        // the primitive parameter gets the boxed value
+        Class<?> paramClazz = MethodType.methodType(parameter.getParamClazz()).wrap().returnType();
+        if (!paramClazz.isAssignableFrom(type)) {
+            return null;
+        }
+
+        final int index = template.indexOf(parameter.getParamName());
+        return context -> PathTemplate.getValue(context, index);
+    }
+
+    private static String getMatrixParam(HttpServerRequest request, String paramName) {
+        String[] items = request.uri().split(";");
+        for (String item : items) {
+            String[] nameValue = item.split("=");
+            if (nameValue.length == 2 && nameValue[0].equals(paramName)) {
+                return nameValue[1];
+            }
+        }
+
+        return null;
+    }
+
+    private static Function<String, Object> valueConverter(Class<?> paramClazz) {
+        if (paramClazz.equals(String.class)) {
+            return value -> value;
+        }
+
+        // primitive types need to be cast differently
+        if (paramClazz.isAssignableFrom(boolean.class) || paramClazz.isAssignableFrom(Boolean.class)) {
+            return Boolean::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(byte.class) || paramClazz.isAssignableFrom(Byte.class)) {
+            return Byte::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(char.class) || paramClazz.isAssignableFrom(Character.class)) {
+            return value -> {
+                Assert.isTrue(value.length() != 0, "Expected Character but got: null");
+                return value.charAt(0);
+            };
+        }
+
+        if (paramClazz.isAssignableFrom(short.class) || paramClazz.isAssignableFrom(Short.class)) {
+            return Short::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(int.class) || paramClazz.isAssignableFrom(Integer.class)) {
+            return Integer::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(long.class) || paramClazz.isAssignableFrom(Long.class)) {
+            return Long::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(float.class) || paramClazz.isAssignableFrom(Float.class)) {
+            return Float::valueOf;
+        }
+
+        if (paramClazz.isAssignableFrom(double.class) || paramClazz.isAssignableFrom(Double.class)) {
+            return Double::valueOf;
+        }
+
+        return value -> null;
+    }
+
+    private static Object convertBean(RouteDefinition definition, RoutingContext context, Argument parameter,
+            RouterContext routerContext) throws Exception {
+        String contentType = context.request().getHeader("Content-Type");
+        MessageConverter<Object> converter = routerContext.getConsumeConverter(definition, contentType);
+
+        if (converter == null) {
+            throw new IllegalStateException("no message convert for " + parameter);
+        }
+        return converter.read(parameter.getParamClazz(), context);
+    }
+
+    private static ArgumentExtractor contextExtractor(RouteDefinition definition, Argument parameter) {
+        Class<?> paramClazz = parameter.getParamClazz();
+        // vert.x context
+        if (paramClazz.isAssignableFrom(HttpServerResponse.class)) {
+            return RoutingContext::response;
+        }
+
+        if (paramClazz.isAssignableFrom(HttpServerRequest.class)) {
+            return RoutingContext::request;
+        }
+
+        if (paramClazz.isAssignableFrom(RoutingContext.class)) {
+            return context -> context;
+        }
+
+        // internal context / reflection of route definition
+        if (paramClazz.isAssignableFrom(RouteDefinition.class)) {
+            return context -> definition;
+        }
+
+        if (paramClazz.isAssignableFrom(Session.class)) {
+            return RoutingContext::session;
+        }
+
+        if (paramClazz.isAssignableFrom(CancellationToken.class)) {
+            return CancellationToken::of;
+        }
+
+        // browse through context storage
+        final String paramName = parameter.getParamName();
+        return context -> {
+            Object item = context.get(paramName);
+            if (item != null) {
+                return item;
+            }
+
+            throw new RuntimeException("can't provide @Context of type: " + paramClazz);
+        };
+    }
+
+}
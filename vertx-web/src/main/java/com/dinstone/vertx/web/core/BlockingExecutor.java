@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * execute the blocking route method out of the event loop, the result handler is called on the context of the request.
+ *
+ * @author dinstone
+ */
+public interface BlockingExecutor {
+
+    <T> void executeBlocking(RoutingContext context, Handler<Promise<T>> blockingCodeHandler,
+            Handler<AsyncResult<T>> resultHandler);
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * reject the request with 413 by the Content-Length header before the body is read, the chunked body is limited by
+ * the body handler while reading.
+ *
+ * @author dinstone
+ */
+public class BodyLimitHandler implements Handler<RoutingContext> {
+
+    private final long bodyLimit;
+
+    public BodyLimitHandler(long bodyLimit) {
+        this.bodyLimit = bodyLimit;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        String contentLength = context.request().getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength) > bodyLimit) {
+                    // don't read the rest of the body
+                    context.response().setStatusCode(413).putHeader(HttpHeaders.CONNECTION, HttpHeaders.CLOSE).end();
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                context.response().setStatusCode(400).end();
+                return;
+            }
+        }
+        context.next();
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.concurrent.CancellationException;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * cancellation signal of a request, it is cancelled when the client closes the connection or the response is ended
+ * before the route method completes, e.g. by the request deadline. inject it by {@code @Context CancellationToken} and
+ * poll it in long-running route methods.
+ *
+ * @author dinstone
+ */
+public class CancellationToken {
+
+    private static final String CONTEXT_KEY = CancellationToken.class.getName();
+
+    private volatile boolean cancelled;
+
+    private CancellationToken() {
+    }
+
+    /**
+     * get the token of the request, must be called on the event loop of the request when first created.
+     * 
+     * @param context
+     * @return
+     */
+    public static CancellationToken of(RoutingContext context) {
+        CancellationToken token = context.get(CONTEXT_KEY);
+        if (token == null) {
+            final CancellationToken created = new CancellationToken();
+            context.put(CONTEXT_KEY, created);
+            context.addEndHandler(ar -> created.cancelled = true);
+            token = created;
+        }
+        return token;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the request is cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("request is cancelled");
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.Iterator;
+import java.util.stream.BaseStream;
+
+import com.dinstone.vertx.web.MessageConverter;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * write the elements of {@link Iterator}, {@link java.util.stream.Stream} or {@link ReadStream} result as a chunked
+ * json array or newline delimited json. the elements are encoded in batches, the next batch is pulled when the
+ * response write queue is drained.
+ * 
+ * @author dinstone
+ */
+public class ChunkedResponseWriter {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int BATCH_SIZE = 128;
+
+    private static final String NULL = "null";
+
+    private final RoutingContext context;
+
+    private final MessageConverter<Object> converter;
+
+    private final String contentType;
+
+    private final boolean ndjson;
+
+    private final BlockingExecutor executor;
+
+    private final Handler<Throwable> failureHandler;
+
+    private boolean first = true;
+
+    private volatile boolean done;
+
+    /**
+     * @param context
+     * @param converter the converter encodes each element
+     * @param contentType the content type of the response
+     * @param executor the executor pulls the elements of iterator, null to pull on the event loop
+     * @param failureHandler
+     */
+    public ChunkedResponseWriter(RoutingContext context, MessageConverter<Object> converter, String contentType,
+            BlockingExecutor executor, Handler<Throwable> failureHandler) {
+        this.context = context;
+        this.converter = converter;
+        this.contentType = contentType;
+        this.ndjson = contentType.startsWith(NDJSON);
+        this.executor = executor;
+        this.failureHandler = failureHandler;
+    }
+
+    public static boolean isStreaming(Object result) {
+        return result instanceof Iterator || result instanceof BaseStream || result instanceof ReadStream;
+    }
+
+    public static boolean isStreaming(Class<?> resultType) {
+        return Iterator.class.isAssignableFrom(resultType) || BaseStream.class.isAssignableFrom(resultType)
+                || ReadStream.class.isAssignableFrom(resultType);
+    }
+
+    /**
+     * release the streaming result without writing it, the stream is closed and the read stream is drained.
+     * 
+     * @param result
+     */
+    public static void discard(Object result) {
+        if (result instanceof ReadStream) {
+            ReadStream<?> stream = (ReadStream<?>) result;
+            stream.exceptionHandler(e -> {
+            }).handler(item -> {
+            }).resume();
+        } else if (result instanceof AutoCloseable) {
+            // the stream and the closeable iterator
+            try {
+                ((AutoCloseable) result).close();
+            } catch (Exception e) {
+                // ignore
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void write(Object result) {
+        if (result instanceof ReadStream) {
+            pipe((ReadStream<Object>) result);
+        } else if (result instanceof BaseStream) {
+            BaseStream<Object, ?> stream = (BaseStream<Object, ?>) result;
+            context.addEndHandler(ar -> stream.close());
+            pull(stream.iterator());
+        } else {
+            pull((Iterator<Object>) result);
+        }
+    }
+
+    private void pull(Iterator<Object> iterator) {
+        if (executor == null) {
+            Buffer chunk;
+            try {
+                chunk = nextChunk(iterator);
+            } catch (Throwable e) {
+                failureHandler.handle(e);
+                return;
+            }
+            writeChunk(chunk, iterator);
+        } else {
+            executor.<Buffer> executeBlocking(context, promise -> {
+                try {
+                    promise.complete(nextChunk(iterator));
+                } catch (Throwable e) {
+                    promise.fail(e);
+                }
+            }, ar -> {
+                if (ar.succeeded()) {
+                    writeChunk(ar.result(), iterator);
+                } else {
+                    failureHandler.handle(ar.cause());
+                }
+            });
+        }
+    }
+
+    private Buffer nextChunk(Iterator<Object> iterator) throws Exception {
+        Buffer chunk = Buffer.buffer();
+        for (int i = 0; i < BATCH_SIZE && iterator.hasNext(); i++) {
+            append(chunk, iterator.next());
+        }
+        if (!iterator.hasNext()) {
+            done = true;
+            appendEnd(chunk);
+        }
+        return chunk;
+    }
+
+    private void writeChunk(Buffer chunk, Iterator<Object> iterator) {
+        HttpServerResponse response = context.response();
+        if (response.closed()) {
+            return;
+        }
+        if (done) {
+            begin(response).end(chunk);
+            return;
+        }
+
+        begin(response).write(chunk);
+        if (response.writeQueueFull()) {
+            response.drainHandler(v -> {
+                response.drainHandler(null);
+                pull(iterator);
+            });
+        } else {
+            // give the other requests of the event loop a chance
+            context.vertx().runOnContext(v -> pull(iterator));
+        }
+    }
+
+    private void pipe(ReadStream<Object> stream) {
+        HttpServerResponse response = context.response();
+        response.closeHandler(v -> stream.pause());
+        stream.exceptionHandler(failureHandler);
+        stream.endHandler(v -> {
+            if (!response.closed()) {
+                Buffer chunk = Buffer.buffer();
+                appendEnd(chunk);
+                begin(response).end(chunk);
+            }
+        });
+        stream.handler(item -> {
+            Buffer chunk = Buffer.buffer();
+            try {
+                append(chunk, item);
+            } catch (Throwable e) {
+                stream.pause();
+                failureHandler.handle(e);
+                return;
+            }
+
+            begin(response).write(chunk);
+            if (response.writeQueueFull()) {
+                stream.pause();
+                response.drainHandler(v -> stream.resume());
+            }
+        });
+    }
+
+    private HttpServerResponse begin(HttpServerResponse response) {
+        if (!response.headWritten()) {
+            response.setChunked(true).putHeader(HttpHeaders.CONTENT_TYPE, contentType);
+        }
+        return response;
+    }
+
+    private void append(Buffer chunk, Object item) throws Exception {
+        Buffer body = item == null ? Buffer.buffer(NULL) : converter.encode(item);
+        if (body == null) {
+            throw new IllegalStateException("message converter can't encode the element of " + contentType);
+        }
+
+        if (ndjson) {
+            chunk.appendBuffer(body).appendByte((byte) '\n');
+        } else {
+            chunk.appendByte((byte) (first ? '[' : ',')).appendBuffer(body);
+        }
+        first = false;
+    }
+
+    private void appendEnd(Buffer chunk) {
+        if (!ndjson) {
+            if (first) {
+                chunk.appendByte((byte) '[');
+            }
+            chunk.appendByte((byte) ']');
+        }
+    }
+
+}
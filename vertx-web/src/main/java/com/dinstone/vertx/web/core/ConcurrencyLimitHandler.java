@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import com.dinstone.vertx.web.ConcurrencyLimiter;
+
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * admission control of a route, the request is rejected with 503 and Retry-After when the limiter has no permit. it
+ * must be the first handler of the route, so the rejection happens before body buffering and argument binding.
+ *
+ * @author dinstone
+ */
+public class ConcurrencyLimitHandler implements Handler<RoutingContext> {
+
+    private final ConcurrencyLimiter limiter;
+
+    private final String retryAfter;
+
+    public ConcurrencyLimitHandler(ConcurrencyLimiter limiter, int retryAfter) {
+        this.limiter = limiter;
+        this.retryAfter = Integer.toString(retryAfter);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        if (!limiter.tryAcquire()) {
+            context.response().setStatusCode(503).putHeader(HttpHeaders.RETRY_AFTER, retryAfter).end();
+            return;
+        }
+
+        final long start = System.nanoTime();
+        context.addEndHandler(ar -> {
+            boolean dropped = ar.failed() || context.response().getStatusCode() == 503;
+            limiter.release(System.nanoTime() - start, dropped);
+        });
+        context.next();
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.dinstone.vertx.web.RouterOptions;
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * answer the CORS request by the headers precomputed per origin. the preflight handler of a route path is built from
+ * the definitions of the path, it ends the preflight request without the route handlers.
+ *
+ * @author dinstone
+ */
+public class CorsHandler implements Handler<RoutingContext> {
+
+    private static final String ANY_ORIGIN = "*";
+
+    private static final String ALL_METHODS = "GET, HEAD, POST, PUT, DELETE, PATCH, OPTIONS, TRACE";
+
+    private final Map<String, MultiMap> originHeaders;
+
+    private final boolean preflight;
+
+    private CorsHandler(Map<String, MultiMap> originHeaders, boolean preflight) {
+        this.originHeaders = originHeaders;
+        this.preflight = preflight;
+    }
+
+    /**
+     * register the CORS handlers of the resolved routes before them, nothing is registered if no origin is allowed.
+     * 
+     * @param router
+     * @param routerContext
+     */
+    public static void register(Router router, RouterContext routerContext) {
+        RouterOptions options = routerContext.getRouterOptions();
+        if (options.getCorsAllowedOrigins() == null || options.getCorsAllowedOrigins().isEmpty()) {
+            return;
+        }
+
+        // the preflight table of each route path, the paths of the same shape share it, e.g. /user/:id and /user/:name
+        Map<String, List<RouteDefinition>> pathDefinitions = new LinkedHashMap<>();
+        for (RouteDefinition definition : routerContext.getRouteDefinitions()) {
+            String key = definition.pathIsRegex() ? "regex:" + definition.getRoutePath()
+                    : "path:" + RouteIndex.shape(definition.getRoutePath());
+            pathDefinitions.computeIfAbsent(key, k -> new ArrayList<>()).add(definition);
+        }
+
+        router.route().order(-1).handler(create(options));
+        RouteIndex routeIndex = routerContext.getRouteIndex();
+        for (List<RouteDefinition> definitions : pathDefinitions.values()) {
+            RouteDefinition definition = definitions.get(0);
+            Route route;
+            if (definition.pathIsRegex()) {
+                route = router.routeWithRegex(HttpMethod.OPTIONS, definition.getRoutePath());
+            } else if (routeIndex != null && RouteIndex.isIndexable(definition)) {
+                // the preflight route is dispatched by the index, not tried by every request
+                route = routeIndex.getRouter(definition.getRoutePath(), Collections.singletonList(HttpMethod.OPTIONS))
+                    .route(HttpMethod.OPTIONS, definition.getRoutePath());
+            } else {
+                route = router.route(HttpMethod.OPTIONS, definition.getRoutePath());
+            }
+            route.order(-1).handler(preflight(options, definitions));
+        }
+    }
+
+    /**
+     * create the handler adding the CORS headers to the actual response
+     * 
+     * @param options
+     * @return
+     */
+    public static CorsHandler create(RouterOptions options) {
+        Map<String, MultiMap> originHeaders = new HashMap<>();
+        for (String origin : options.getCorsAllowedOrigins()) {
+            originHeaders.put(origin, originHeaders(options, origin));
+        }
+        return new CorsHandler(Collections.unmodifiableMap(originHeaders), false);
+    }
+
+    /**
+     * create the handler answering the preflight request of the route path, the allowed methods and headers come from
+     * the definitions of the path.
+     * 
+     * @param options
+     * @param definitions
+     * @return
+     */
+    public static CorsHandler preflight(RouterOptions options, Collection<RouteDefinition> definitions) {
+        String allowMethods = allowMethods(options, definitions);
+        String allowHeaders = allowHeaders(options, definitions);
+
+        Map<String, MultiMap> originHeaders = new HashMap<>();
+        for (String origin : options.getCorsAllowedOrigins()) {
+            MultiMap headers = originHeaders(options, origin);
+            headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, allowMethods);
+            if (!allowHeaders.isEmpty()) {
+                headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, allowHeaders);
+            }
+            if (options.getCorsMaxAge() >= 0) {
+                headers.set(HttpHeaders.ACCESS_CONTROL_MAX_AGE, String.valueOf(options.getCorsMaxAge()));
+            }
+            originHeaders.put(origin, headers);
+        }
+        return new CorsHandler(Collections.unmodifiableMap(originHeaders), true);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        boolean preflightRequest = HttpMethod.OPTIONS.equals(request.method())
+                && request.getHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD) != null;
+        // the plain OPTIONS request is routed to the handler
+        if (origin == null || preflightRequest != preflight) {
+            context.next();
+            return;
+        }
+
+        MultiMap headers = originHeaders.get(origin);
+        if (headers == null) {
+            headers = originHeaders.get(ANY_ORIGIN);
+        }
+
+        if (preflight) {
+            if (headers == null) {
+                context.response().setStatusCode(403).end();
+            } else {
+                context.response().setStatusCode(204).headers().setAll(headers);
+                context.response().end();
+            }
+        } else {
+            if (headers != null) {
+                context.response().headers().addAll(headers);
+            }
+            context.next();
+        }
+    }
+
+    private static MultiMap originHeaders(RouterOptions options, String origin) {
+        MultiMap headers = HttpHeaders.headers();
+        headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+        if (!ANY_ORIGIN.equals(origin)) {
+            if (options.isCorsAllowCredentials()) {
+                headers.set(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            headers.set(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+        }
+        return headers;
+    }
+
+    private static String allowMethods(RouterOptions options, Collection<RouteDefinition> definitions) {
+        Set<String> methods = new LinkedHashSet<>();
+        for (RouteDefinition definition : definitions) {
+            String method = definition.getHttpMethod();
+            if (method == null) {
+                // the route without http method accepts any method
+                return ALL_METHODS;
+            }
+            methods.add(method);
+            if ("GET".equals(method) && options.isHeadSupported()) {
+                methods.add("HEAD");
+            }
+        }
+        return String.join(", ", methods);
+    }
+
+    private static String allowHeaders(RouterOptions options, Collection<RouteDefinition> definitions) {
+        Set<String> headers = new LinkedHashSet<>();
+        if (options.getCorsAllowedHeaders() != null) {
+            headers.addAll(options.getCorsAllowedHeaders());
+        }
+        for (RouteDefinition definition : definitions) {
+            // the consumed media types other than the simple ones need the Content-Type be allowed
+            if (definition.hasBody()) {
+                headers.add("Content-Type");
+                break;
+            }
+        }
+        return String.join(", ", headers);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * fail the request with the error code if the response isn't ended before the deadline, as the vert.x TimeoutHandler
+ * does. the deadline can be cancelled, e.g. when the route starts streaming the response.
+ *
+ * @author dinstone
+ */
+public class DeadlineHandler implements Handler<RoutingContext> {
+
+    private static final String TIMER_KEY = DeadlineHandler.class.getName();
+
+    private final long timeout;
+
+    private final int errorCode;
+
+    public DeadlineHandler(long timeout, int errorCode) {
+        this.timeout = timeout;
+        this.errorCode = errorCode;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        long timerId = context.vertx().setTimer(timeout, t -> {
+            context.remove(TIMER_KEY);
+            context.fail(errorCode);
+        });
+        context.put(TIMER_KEY, timerId);
+        context.addBodyEndHandler(v -> cancel(context));
+        context.next();
+    }
+
+    /**
+     * cancel the deadline of the request
+     * 
+     * @param context
+     */
+    public static void cancel(RoutingContext context) {
+        Long timerId = context.remove(TIMER_KEY);
+        if (timerId != null) {
+            context.vertx().cancelTimer(timerId);
+        }
+    }
+
+}
@@ -15,35 +15,33 @@
  */
 package com.dinstone.vertx.web.core;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
+import com.dinstone.vertx.web.ErrorRenderer;
+import com.dinstone.vertx.web.ErrorResponse;
 import com.dinstone.vertx.web.ExceptionHandler;
 
-import io.vertx.core.http.HttpServerResponse;
-import io.vertx.core.json.Json;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.ext.web.RoutingContext;
 
 public class DefaultExceptionHandler implements ExceptionHandler<Throwable> {
 
-    private static final String CONTENT_TYPE_KEY = "Content-Type";
+    private final ErrorRenderer errorRenderer;
+
+    public DefaultExceptionHandler() {
+        this(new JsonErrorRenderer());
+    }
 
-    private static final String CONTENT_TYPE_VALUE = "application/json; charset=UTF-8";
+    public DefaultExceptionHandler(ErrorRenderer errorRenderer) {
+        this.errorRenderer = errorRenderer;
+    }
 
+    /**
+     * the response status is always 500, the unknown cause is rendered with the code 503
+     */
     @Override
     public void handle(Throwable t, RoutingContext context) {
-        Map<String, Object> res = new LinkedHashMap<>();
-        if (t == null) {
-            res.put("code", "503");
-            res.put("message", "The service is unavailable");
-        } else {
-            res.put("code", "500");
-            res.put("message", t.getClass().getName() + ": " + t.getMessage());
-        }
-
-        HttpServerResponse response = context.response();
-        response.putHeader(CONTENT_TYPE_KEY, CONTENT_TYPE_VALUE);
-        response.setStatusCode(500).end(Json.encodeToBuffer(res));
+        ErrorResponse response = errorRenderer.render(t == null ? 503 : 500, t);
+        context.response().setStatusCode(500).putHeader(HttpHeaders.CONTENT_TYPE, response.getContentType())
+            .end(response.getBody());
     }
 
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * make and match the entity tag of the response
+ * 
+ * @author dinstone
+ */
+public final class EntityTag {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String[] ENCODINGS = { "-" + ResponseCompressor.GZIP + '"',
+            "-" + ResponseCompressor.DEFLATE + '"' };
+
+    private EntityTag() {
+    }
+
+    /**
+     * the entity tag of the body, hashed by 64 bits FNV-1a
+     * 
+     * @param body
+     * @return
+     */
+    public static String of(Buffer body) {
+        long hash = FNV_OFFSET;
+        for (int i = 0, length = body.length(); i < length; i++) {
+            hash ^= body.getByte(i) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return '"' + Long.toHexString(hash) + '"';
+    }
+
+    /**
+     * the entity tag of the version
+     * 
+     * @param version
+     * @return
+     */
+    public static String of(String version) {
+        return '"' + version + '"';
+    }
+
+    /**
+     * the entity tag of the compressed representation
+     * 
+     * @param etag
+     * @param encoding
+     * @return
+     */
+    public static String of(String etag, String encoding) {
+        return etag.substring(0, etag.length() - 1) + '-' + encoding + '"';
+    }
+
+    /**
+     * weak comparison of the If-None-Match header and the entity tag, the representations of different content
+     * encodings are matched.
+     * 
+     * @param ifNoneMatch
+     * @param etag
+     * @return
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+
+        etag = identity(etag);
+        for (String item : ifNoneMatch.split(",")) {
+            item = item.trim();
+            if (item.equals("*")) {
+                return true;
+            }
+            if (item.startsWith("W/")) {
+                item = item.substring(2);
+            }
+            if (identity(item).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String identity(String etag) {
+        for (String encoding : ENCODINGS) {
+            if (etag.endsWith(encoding)) {
+                return etag.substring(0, etag.length() - encoding.length()) + '"';
+            }
+        }
+        return etag;
+    }
+}
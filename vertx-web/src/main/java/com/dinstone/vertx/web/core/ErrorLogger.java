@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+
+/**
+ * log the exceptions of the routes with rate limit. in each interval, the first occurrences of an exception type on a
+ * route are logged with stack trace, the rest are sampled without stack trace and counted, the count is logged when the
+ * interval rolls over, by a timer at the end of the interval or by the next occurrence.
+ * 
+ * @author dinstone
+ */
+public class ErrorLogger {
+
+    // keep the logger category of the route exceptions
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractRouteResolver.class);
+
+    private static class Counter {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+    }
+
+    private final Map<RouteDefinition, Map<Class<?>, Counter>> counters = new ConcurrentHashMap<>();
+
+    private final Vertx vertx;
+
+    private final int limit;
+
+    private final long interval;
+
+    private final int sampleRate;
+
+    public ErrorLogger(int limit, long interval, int sampleRate) {
+        this(null, limit, interval, sampleRate);
+    }
+
+    /**
+     * @param vertx the timer of vert.x logs the suppressed count at the end of the interval, null to log it on the next
+     *            occurrence only
+     * @param limit the occurrences logged with stack trace in each interval
+     * @param interval the interval in milliseconds, 0 means no rate limit
+     * @param sampleRate log one of every sample rate suppressed occurrences without stack trace, 0 means no sampling
+     */
+    public ErrorLogger(Vertx vertx, int limit, long interval, int sampleRate) {
+        this.vertx = vertx;
+        this.limit = limit;
+        this.interval = interval;
+        this.sampleRate = sampleRate;
+    }
+
+    public void log(RouteDefinition definition, Throwable e) {
+        if (interval <= 0) {
+            error("handling exception for " + definition, e);
+            return;
+        }
+
+        Counter counter = counters.computeIfAbsent(definition, d -> new ConcurrentHashMap<>())
+            .computeIfAbsent(e.getClass(), c -> new Counter());
+        rollover(definition, e.getClass(), counter);
+
+        long count = counter.count.incrementAndGet();
+        if (count <= limit) {
+            error("handling exception for " + definition, e);
+            return;
+        }
+
+        if (count == limit + 1) {
+            scheduleRollover(definition, e.getClass(), counter);
+        }
+        if (sampleRate > 0 && (count - limit) % sampleRate == 0) {
+            error("handling exception for " + definition + " : " + e + ", " + (count - limit)
+                    + " suppressed in this interval", null);
+        }
+    }
+
+    private void rollover(RouteDefinition definition, Class<?> type, Counter counter) {
+        long now = System.currentTimeMillis();
+        long start = counter.windowStart.get();
+        if (now - start >= interval && counter.windowStart.compareAndSet(start, now)) {
+            long suppressed = counter.count.getAndSet(0) - limit;
+            if (suppressed > 0) {
+                error("suppressed " + suppressed + " " + type.getName() + " in last " + (now - start) + "ms for "
+                        + definition, null);
+            }
+        }
+    }
+
+    /**
+     * the suppressed count of the interval is logged even if the exception doesn't occur again
+     */
+    private void scheduleRollover(RouteDefinition definition, Class<?> type, Counter counter) {
+        if (vertx == null) {
+            return;
+        }
+
+        long delay = Math.max(1, counter.windowStart.get() + interval - System.currentTimeMillis());
+        try {
+            vertx.setTimer(delay, id -> rollover(definition, type, counter));
+        } catch (RuntimeException e) {
+            // vert.x is closing, the count is logged on the next occurrence
+        }
+    }
+
+    void error(String message, Throwable e) {
+        LOG.error(message, e);
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dinstone.vertx.web.ConcurrencyLimiter;
+import com.dinstone.vertx.web.util.Assert;
+
+/**
+ * static concurrency limit, the in-flight count is updated by a lock-free CAS loop.
+ *
+ * @author dinstone
+ */
+public class FixedConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final int limit;
+
+    public FixedConcurrencyLimiter(int limit) {
+        Assert.isTrue(limit > 0, "limit must be greater than 0");
+        this.limit = limit;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(long rtt, boolean dropped) {
+        inflight.decrementAndGet();
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.dinstone.vertx.web.ConcurrencyLimiter;
+import com.dinstone.vertx.web.util.Assert;
+
+/**
+ * adaptive concurrency limit based on the gradient of the round trip time. the limit shrinks when the short term RTT
+ * of the latest sample window grows over the long term RTT, and grows by a queue allowance of sqrt(limit) while the
+ * RTT is stable. dropped requests halve the limit.
+ * <p>
+ * samples are accumulated lock-free, the count and RTT sum of the window are packed in one long so that they are read
+ * and reset together. the limit is recalculated once per window, or earlier when the sample count gets near its bits,
+ * by the thread that wins the window lock, so the acquire path stays a CAS on the event loop.
+ *
+ * @author dinstone
+ */
+public class GradientConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private static final int LONG_WINDOW = 600;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double RTT_TOLERANCE = 1.5;
+
+    /**
+     * the low bits of the packed samples count the samples, the high bits sum the RTT in microseconds
+     */
+    private static final int COUNT_BITS = 20;
+
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    /**
+     * the window rolls over at half of the count bits, the other half takes the samples added before the reset
+     */
+    private static final long MAX_WINDOW_SAMPLES = 1L << (COUNT_BITS - 1);
+
+    /**
+     * the RTT of a sample is capped to about 16s, so the sum of a full count can't overflow its bits
+     */
+    private static final long MAX_SAMPLE_MICROS = (1L << (Long.SIZE - 2 * COUNT_BITS)) - 1;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final AtomicLong samples = new AtomicLong();
+
+    private final AtomicBoolean windowDropped = new AtomicBoolean();
+
+    private final AtomicInteger windowMaxInflight = new AtomicInteger();
+
+    private final ReentrantLock windowLock = new ReentrantLock();
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long windowNanos;
+
+    private volatile int limit;
+
+    // guarded by windowLock
+    private double estimatedLimit;
+
+    private double longRtt;
+
+    private long windowStart = System.nanoTime();
+
+    public GradientConcurrencyLimiter() {
+        this(20, 1, 1000, 100);
+    }
+
+    /**
+     * @param initialLimit
+     * @param minLimit
+     * @param maxLimit
+     * @param window       sample window in milliseconds
+     */
+    public GradientConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long window) {
+        Assert.isTrue(minLimit > 0, "minLimit must be greater than 0");
+        Assert.isTrue(maxLimit >= minLimit, "maxLimit must not be less than minLimit");
+        Assert.isTrue(initialLimit >= minLimit && initialLimit <= maxLimit,
+            "initialLimit must be between minLimit and maxLimit");
+        Assert.isTrue(window >= 0, "window must not be negative");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                updateMaxInflight(current + 1);
+                return true;
+            }
+        }
+    }
+
+    private void updateMaxInflight(int current) {
+        int max;
+        while ((max = windowMaxInflight.get()) < current) {
+            if (windowMaxInflight.compareAndSet(max, current)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void release(long rtt, boolean dropped) {
+        inflight.decrementAndGet();
+        long packed;
+        if (dropped) {
+            windowDropped.set(true);
+            packed = samples.get();
+        } else {
+            long micros = Math.min(MAX_SAMPLE_MICROS, Math.max(1, TimeUnit.NANOSECONDS.toMicros(rtt)));
+            packed = samples.addAndGet((micros << COUNT_BITS) + 1);
+        }
+
+        long now = System.nanoTime();
+        if (windowEnded(packed, now) && windowLock.tryLock()) {
+            try {
+                if (windowEnded(samples.get(), now)) {
+                    updateLimit(now);
+                }
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+
+    private boolean windowEnded(long packed, long now) {
+        return now - windowStart >= windowNanos || (packed & COUNT_MASK) >= MAX_WINDOW_SAMPLES;
+    }
+
+    private void updateLimit(long now) {
+        boolean dropped = windowDropped.get();
+        if ((samples.get() & COUNT_MASK) < MIN_WINDOW_SAMPLES && !dropped) {
+            // keep sampling
+            return;
+        }
+
+        long packed = samples.getAndSet(0);
+        long count = packed & COUNT_MASK;
+        long sum = packed >>> COUNT_BITS;
+        windowDropped.set(false);
+        int maxInflight = windowMaxInflight.getAndSet(inflight.get());
+        windowStart = now;
+
+        double newLimit;
+        if (dropped) {
+            // the drop is a hard signal, the limit is halved without smoothing
+            newLimit = estimatedLimit / 2;
+        } else {
+            double shortRtt = (double) sum / count;
+            if (longRtt == 0) {
+                longRtt = shortRtt;
+            } else {
+                longRtt = longRtt + (shortRtt - longRtt) / LONG_WINDOW;
+                // latency dropped a lot, let the long term RTT catch up
+                if (longRtt / shortRtt > 2) {
+                    longRtt *= 0.95;
+                }
+            }
+
+            // the route does not use its limit, there is no signal to grow
+            if (maxInflight < estimatedLimit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
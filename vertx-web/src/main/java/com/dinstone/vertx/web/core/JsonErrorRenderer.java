@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.dinstone.vertx.web.ErrorRenderer;
+import com.dinstone.vertx.web.ErrorResponse;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * render the error response as {@code {"code":"500","message":"..."}}. the response of the exception without message
+ * is cached by status and exception type, the dynamic message is written into the pre-encoded template of the status.
+ * 
+ * @author dinstone
+ */
+public class JsonErrorRenderer implements ErrorRenderer {
+
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Map<Integer, byte[]> prefixes = new ConcurrentHashMap<>();
+
+    private final Map<Integer, ErrorResponse> unknownResponses = new ConcurrentHashMap<>();
+
+    private final ClassValue<Map<Integer, ErrorResponse>> staticResponses = //
+            new ClassValue<Map<Integer, ErrorResponse>>() {
+
+                @Override
+                protected Map<Integer, ErrorResponse> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    @Override
+    public ErrorResponse render(int status, Throwable t) {
+        if (t == null) {
+            return unknownResponses.computeIfAbsent(status,
+                s -> new ErrorResponse(s, CONTENT_TYPE, encode(s, "The service is unavailable")));
+        }
+
+        if (t.getMessage() == null) {
+            return staticResponses.get(t.getClass()).computeIfAbsent(status,
+                s -> new ErrorResponse(s, CONTENT_TYPE, encode(s, t.getClass().getName() + ": null")));
+        }
+        return new ErrorResponse(status, CONTENT_TYPE, encode(status, t.getClass().getName() + ": " + t.getMessage()));
+    }
+
+    private Buffer encode(int status, String message) {
+        byte[] prefix = prefixes.computeIfAbsent(status,
+            s -> ("{\"code\":\"" + s + "\",\"message\":\"").getBytes(StandardCharsets.UTF_8));
+        return Buffer.buffer(prefix.length + message.length() + SUFFIX.length + 8).appendBytes(prefix)
+            .appendString(escape(message)).appendBytes(SUFFIX);
+    }
+
+    private static String escape(String message) {
+        int i = 0;
+        while (i < message.length() && !needEscape(message.charAt(i))) {
+            i++;
+        }
+        if (i == message.length()) {
+            return message;
+        }
+
+        StringBuilder builder = new StringBuilder(message.length() + 16).append(message, 0, i);
+        for (; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xf]);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean needEscape(char c) {
+        return c == '"' || c == '\\' || c < 0x20;
+    }
+
+}
@@ -16,22 +16,101 @@
 package com.dinstone.vertx.web.core;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 import com.dinstone.vertx.web.MessageConverter;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.json.Json;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.DatabindCodec;
 import io.vertx.ext.web.RoutingContext;
 
+/**
+ * json message converter, the typed reader and writer of each type are created once, the types of the routes are
+ * prepared when the routes are registered.
+ * 
+ * @author dinstone
+ */
 public class JsonMessageConverter implements MessageConverter<Object> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(JsonMessageConverter.class);
+
+    private static final String BLACKBIRD_MODULE = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
     private String mediaType = "application/json; charset=UTF-8";
 
+    private final ClassValue<ObjectReader> readers;
+
+    private final ClassValue<ObjectWriter> writers;
+
+    public JsonMessageConverter() {
+        this(DatabindCodec.mapper());
+    }
+
+    public JsonMessageConverter(ObjectMapper objectMapper) {
+        this.readers = new ClassValue<ObjectReader>() {
+
+            @Override
+            protected ObjectReader computeValue(Class<?> type) {
+                return objectMapper.readerFor(type);
+            }
+        };
+        this.writers = new ClassValue<ObjectWriter>() {
+
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return objectMapper.writerFor(type);
+            }
+        };
+    }
+
+    /**
+     * register the Blackbird module to the object mapper if it's on the classpath, it generates the property accessors
+     * instead of reflection.
+     * 
+     * @param objectMapper
+     * @return false if the module is not found
+     */
+    public static boolean registerBlackbird(ObjectMapper objectMapper) {
+        try {
+            Class<?> moduleClass = Class.forName(BLACKBIRD_MODULE);
+            objectMapper.registerModule((Module) moduleClass.getConstructor().newInstance());
+            return true;
+        } catch (ClassNotFoundException e) {
+            LOG.warn("jackson blackbird module is not on the classpath");
+        } catch (Exception e) {
+            LOG.warn("jackson blackbird module can't be registered", e);
+        }
+        return false;
+    }
+
+    @Override
+    public void prepare(Class<?> type) {
+        readers.get(type);
+        writers.get(type);
+    }
+
     @Override
     public Object read(Class<? extends Object> clazz, RoutingContext context) throws IOException {
         Buffer body = context.getBody();
         if (body.length() > 0) {
-            return Json.decodeValue(body, clazz);
+            try (InputStream in = new ByteBufInputStream(body.getByteBuf())) {
+                return readers.get(clazz).readValue(in);
+            } catch (IOException e) {
+                throw new DecodeException("Failed to decode:" + e.getMessage(), e);
+            }
         }
         return null;
     }
@@ -39,13 +118,21 @@ public class JsonMessageConverter implements MessageConverter<Object> {
     @Override
     public void write(Object result, RoutingContext context) throws IOException {
         context.response().putHeader("Content-Type", mediaType);
+        context.response().end(encode(result));
+    }
 
+    @Override
+    public Buffer encode(Object result) throws IOException {
         if (result != null) {
-            Buffer buffer = Json.encodeToBuffer(result);
-            context.response().end(buffer);
-        } else {
-            context.response().end();
+            ByteBuf buf = Unpooled.buffer();
+            try (OutputStream out = new ByteBufOutputStream(buf)) {
+                writers.get(result.getClass()).writeValue(out, result);
+            } catch (IOException e) {
+                throw new EncodeException("Failed to encode as JSON: " + e.getMessage(), e);
+            }
+            return Buffer.buffer(buf);
         }
+        return Buffer.buffer();
     }
 
     @Override
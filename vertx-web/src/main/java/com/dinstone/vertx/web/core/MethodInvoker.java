@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * invoke the route method of a web handler, built once per route at resolve time.
+ *
+ * @author dinstone
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    /**
+     * invoke the route method with the bound arguments, the exception thrown by the method is rethrown as is.
+     *
+     * @param args
+     * @return the method result, null for void method
+     * @throws Throwable
+     */
+    Object invoke(Object[] args) throws Throwable;
+
+    /**
+     * create a method handle invoker bound to the service instance, falls back to reflection when the method is not
+     * accessible by lookup.
+     *
+     * @param service
+     * @param method
+     * @return
+     */
+    public static MethodInvoker create(Object service, Method method) {
+        MethodHandle handle;
+        try {
+            if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                handle = MethodHandles.publicLookup().unreflect(method);
+            } else {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            }
+        } catch (Exception e) {
+            // not accessible by method handle, invoke by reflection
+            return args -> {
+                try {
+                    return method.invoke(service, args);
+                } catch (InvocationTargetException ite) {
+                    throw ite.getCause();
+                }
+            };
+        }
+
+        final MethodHandle invoker = handle.bindTo(service).asSpreader(Object[].class, method.getParameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> invoker.invokeExact(args);
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.net.impl.URIDecoder;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * the template of the route path, e.g. {@code /user/{id:long}/order/{date:iso-date}}. each segment of the template is
+ * a literal or a path parameter, the typed parameter is validated and parsed while the path is matched, so the route is
+ * tried only if all segments match and the route method gets the parsed value instead of converting the string. the
+ * shape of the typed segment is checked before it's parsed, so the mismatched request doesn't throw on the routing path.
+ * <p>
+ * the types are string (the default), int, long, double, boolean, uuid and iso-date.
+ *
+ * @author dinstone
+ */
+public class PathTemplate {
+
+    private static final String VALUES_KEY = PathTemplate.class.getName();
+
+    private static final Map<String, SegmentType> SEGMENT_TYPES = new HashMap<>();
+
+    static {
+        register("string", String.class, value -> true, value -> value);
+        register("int", Integer.class, value -> isInteger(value, 10), Integer::valueOf);
+        register("long", Long.class, value -> isInteger(value, 19), Long::valueOf);
+        register("double", Double.class, PathTemplate::isDecimal, Double::valueOf);
+        register("boolean", Boolean.class, value -> "true".equals(value) || "false".equals(value), Boolean::valueOf);
+        register("uuid", UUID.class, PathTemplate::isUuid, UUID::fromString);
+        register("iso-date", LocalDate.class, PathTemplate::isIsoDate, LocalDate::parse);
+    }
+
+    private static class SegmentType {
+
+        private final Class<?> javaType;
+
+        private final Predicate<String> validator;
+
+        private final Function<String, Object> parser;
+
+        private SegmentType(Class<?> javaType, Predicate<String> validator, Function<String, Object> parser) {
+            this.javaType = javaType;
+            this.validator = validator;
+            this.parser = parser;
+        }
+
+        /**
+         * @return null if the value is not of the type
+         */
+        private Object parse(String value) {
+            if (!validator.test(value)) {
+                return null;
+            }
+            try {
+                return parser.apply(value);
+            } catch (RuntimeException e) {
+                // the shape is valid but the value is not, e.g. the overflow or the day out of the month
+                return null;
+            }
+        }
+
+    }
+
+    private final String template;
+
+    /**
+     * the literal of each segment, null for the path parameter
+     */
+    private final String[] literals;
+
+    private final String[] names;
+
+    private final SegmentType[] types;
+
+    private PathTemplate(String template, String[] literals, String[] names, SegmentType[] types) {
+        this.template = template;
+        this.literals = literals;
+        this.names = names;
+        this.types = types;
+    }
+
+    /**
+     * compile the template, the segment is a literal, {@code {name}}, {@code {name:type}} or {@code :name}.
+     * 
+     * @param template
+     * @return
+     * @throws IllegalArgumentException
+     *             if the segment type is unknown or the segment is a wildcard
+     */
+    public static PathTemplate compile(String template) {
+        String[] segments = RouteIndex.segments(template);
+        String[] literals = new String[segments.length];
+        String[] names = new String[segments.length];
+        SegmentType[] types = new SegmentType[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.indexOf('*') >= 0) {
+                throw new IllegalArgumentException("wildcard is not supported by path template: " + template);
+            }
+
+            String type = "string";
+            if (segment.charAt(0) == ':') {
+                names[i] = segment.substring(1);
+            } else if (segment.length() > 2 && segment.charAt(0) == '{'
+                    && segment.charAt(segment.length() - 1) == '}') {
+                int colon = segment.indexOf(':');
+                names[i] = segment.substring(1, colon > 0 ? colon : segment.length() - 1);
+                if (colon > 0) {
+                    type = segment.substring(colon + 1, segment.length() - 1);
+                }
+            } else {
+                literals[i] = segment;
+                continue;
+            }
+
+            types[i] = SEGMENT_TYPES.get(type);
+            if (types[i] == null) {
+                throw new IllegalArgumentException("unknown segment type '" + type + "' of path template: " + template);
+            }
+        }
+        return new PathTemplate(template, literals, names, types);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * get the literal segments before the first path parameter, e.g. {@code /user} of {@code /user/{id}/orders}.
+     * 
+     * @return empty if the template starts with a path parameter
+     */
+    public String getPrefix() {
+        StringBuilder prefix = new StringBuilder();
+        for (String literal : literals) {
+            if (literal == null || literal.indexOf(':') >= 0) {
+                break;
+            }
+            prefix.append('/').append(literal);
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * get the type of the path parameter
+     * 
+     * @param name
+     * @return null if the template has no such parameter
+     */
+    public Class<?> getParamType(String name) {
+        int index = indexOf(name);
+        return index < 0 ? null : types[index].javaType;
+    }
+
+    /**
+     * get the segment index of the path parameter
+     * 
+     * @param name
+     * @return -1 if the template has no such parameter
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (name.equals(names[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * match the path of the request relative to the mount point, the path parameters and their parsed values are set to
+     * the context if matched.
+     * 
+     * @param context
+     * @return
+     */
+    public boolean match(RoutingContext context) {
+        String[] segments = RouteIndex.segments(RouteIndex.relativePath(context));
+        if (segments.length != literals.length) {
+            return false;
+        }
+
+        String[] params = new String[segments.length];
+        Object[] values = new Object[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            if (literals[i] != null) {
+                if (!literals[i].equals(segments[i])) {
+                    return false;
+                }
+                continue;
+            }
+
+            try {
+                params[i] = URIDecoder.decodeURIComponent(segments[i], false);
+            } catch (RuntimeException e) {
+                // the malformed escape
+                return false;
+            }
+            values[i] = types[i].parse(params[i]);
+            if (values[i] == null) {
+                // the segment is not a value of the type
+                return false;
+            }
+        }
+
+        // the path parameters are set as the route path does
+        HttpServerRequest request = context.request();
+        for (int i = 0; i < params.length; i++) {
+            if (names[i] != null) {
+                if (!request.params().contains(names[i])) {
+                    request.params().add(names[i], params[i]);
+                }
+                context.pathParams().put(names[i], params[i]);
+            }
+        }
+        context.put(VALUES_KEY, values);
+        return true;
+    }
+
+    /**
+     * get the parsed value of the path parameter matched by {@link #match(RoutingContext)}
+     * 
+     * @param context
+     * @param index
+     * @return
+     */
+    public static Object getValue(RoutingContext context, int index) {
+        Object[] values = context.get(VALUES_KEY);
+        return values == null ? null : values[index];
+    }
+
+    /**
+     * parse the segment value of the type
+     * 
+     * @param type
+     * @param value
+     * @return null if the value is not of the type
+     */
+    static Object parse(String type, String value) {
+        return SEGMENT_TYPES.get(type).parse(value);
+    }
+
+    private static void register(String name, Class<?> javaType, Predicate<String> validator,
+            Function<String, Object> parser) {
+        SEGMENT_TYPES.put(name, new SegmentType(javaType, validator, parser));
+    }
+
+    /**
+     * optional sign and digits, the leading zeros don't count to the max digits
+     */
+    private static boolean isInteger(String value, int maxDigits) {
+        int length = value.length();
+        int start = length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            return false;
+        }
+        int digits = 0;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            if (digits > 0 || c != '0') {
+                digits++;
+            }
+        }
+        return digits <= maxDigits;
+    }
+
+    private static boolean isDecimal(String value) {
+        boolean digit = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    /**
+     * 8-4-4-4-12 hex digits
+     */
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * yyyy-MM-dd
+     */
+    private static boolean isIsoDate(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            char c = value.charAt(i);
+            if (i != 4 && i != 7 && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        int month = (value.charAt(5) - '0') * 10 + value.charAt(6) - '0';
+        int day = (value.charAt(8) - '0') * 10 + value.charAt(9) - '0';
+        return month >= 1 && month <= 12 && day >= 1 && day <= 31;
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * cache of the encoded responses, bounded by the total bytes of the bodies and expired by TTL.
+ * <p>
+ * the cache is striped into segments by key hash, each segment is a segmented LRU: new entries enter the probation
+ * space and are promoted to the protected space on the second hit, so one-off requests can't flush the hot entries.
+ * eviction takes the LRU entry of the probation space first.
+ *
+ * @author dinstone
+ */
+public class ResponseCache {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * approximate bytes of key and entry objects
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    public static class Entry {
+
+        private final Buffer body;
+
+        private final String contentType;
+
+        private final String etag;
+
+        private final long expireAt;
+
+        private final String encoding;
+
+        private final Buffer encodedBody;
+
+        private final int weight;
+
+        public Entry(Buffer body, String contentType, String etag, long ttl) {
+            this(body, contentType, etag, System.currentTimeMillis() + ttl, null, null);
+        }
+
+        private Entry(Buffer body, String contentType, String etag, long expireAt, String encoding,
+                Buffer encodedBody) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.expireAt = expireAt;
+            this.encoding = encoding;
+            this.encodedBody = encodedBody;
+            this.weight = body.length() + (encodedBody == null ? 0 : encodedBody.length()) + ENTRY_OVERHEAD;
+        }
+
+        /**
+         * copy the entry with the compressed body, it's kept next to the raw body
+         * 
+         * @param encoding
+         * @param encodedBody
+         * @return
+         */
+        public Entry withEncoding(String encoding, Buffer encodedBody) {
+            return new Entry(body, contentType, etag, expireAt, encoding, encodedBody);
+        }
+
+        public Buffer getBody() {
+            return body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+
+        public Buffer getEncodedBody() {
+            return encodedBody;
+        }
+
+        public boolean isExpired(long now) {
+            return now >= expireAt;
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * @param maxBytes max total bytes of the cached responses
+     */
+    public ResponseCache(long maxBytes) {
+        long segmentBytes = Math.max(1, maxBytes / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentBytes);
+        }
+    }
+
+    public Entry get(Object key) {
+        return segment(key).get(key, System.currentTimeMillis());
+    }
+
+    public void put(Object key, Entry entry) {
+        segment(key).put(key, entry);
+    }
+
+    /**
+     * @return the total bytes of the cached responses
+     */
+    public long weight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private Segment segment(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (SEGMENTS - 1)];
+    }
+
+    private static class Segment {
+
+        private final Map<Object, Entry> probation = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final Map<Object, Entry> protect = new LinkedHashMap<>(16, 0.75f, true);
+
+        private final long maxBytes;
+
+        private final long maxProtectBytes;
+
+        private long probationBytes;
+
+        private long protectBytes;
+
+        Segment(long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.maxProtectBytes = maxBytes * 4 / 5;
+        }
+
+        synchronized Entry get(Object key, long now) {
+            Entry entry = protect.get(key);
+            if (entry != null) {
+                if (entry.isExpired(now)) {
+                    protect.remove(key);
+                    protectBytes -= entry.weight();
+                    return null;
+                }
+                return entry;
+            }
+
+            entry = probation.remove(key);
+            if (entry == null) {
+                return null;
+            }
+            probationBytes -= entry.weight();
+            if (entry.isExpired(now)) {
+                return null;
+            }
+
+            // second hit, promote to the protected space and demote its LRU entries
+            protect.put(key, entry);
+            protectBytes += entry.weight();
+            Iterator<Map.Entry<Object, Entry>> it = protect.entrySet().iterator();
+            while (protectBytes > maxProtectBytes && it.hasNext()) {
+                Map.Entry<Object, Entry> eldest = it.next();
+                if (eldest.getValue() == entry) {
+                    break;
+                }
+                it.remove();
+                protectBytes -= eldest.getValue().weight();
+                probation.put(eldest.getKey(), eldest.getValue());
+                probationBytes += eldest.getValue().weight();
+            }
+            evict();
+            return entry;
+        }
+
+        synchronized void put(Object key, Entry entry) {
+            if (entry.weight() > maxBytes) {
+                return;
+            }
+
+            Entry old = protect.remove(key);
+            if (old != null) {
+                protectBytes -= old.weight();
+            }
+            old = probation.put(key, entry);
+            if (old != null) {
+                probationBytes -= old.weight();
+            }
+            probationBytes += entry.weight();
+            evict();
+        }
+
+        private void evict() {
+            evict(probation.entrySet().iterator(), true);
+            evict(protect.entrySet().iterator(), false);
+        }
+
+        private void evict(Iterator<Map.Entry<Object, Entry>> it, boolean probationSpace) {
+            while (probationBytes + protectBytes > maxBytes && it.hasNext()) {
+                int weight = it.next().getValue().weight();
+                it.remove();
+                if (probationSpace) {
+                    probationBytes -= weight;
+                } else {
+                    protectBytes -= weight;
+                }
+            }
+        }
+
+        synchronized long weight() {
+            return probationBytes + protectBytes;
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * negotiate the content encoding of the response and compress the body, created once per route.
+ * 
+ * @author dinstone
+ */
+public class ResponseCompressor {
+
+    public static final String GZIP = "gzip";
+
+    public static final String DEFLATE = "deflate";
+
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private final int level;
+
+    private final int minSize;
+
+    private final List<String> excludedTypes;
+
+    public ResponseCompressor(int level, int minSize, List<String> excludedTypes) {
+        this.level = level;
+        this.minSize = minSize;
+        this.excludedTypes = excludedTypes;
+    }
+
+    /**
+     * choose the content encoding of the response by the Accept-Encoding header
+     * 
+     * @param request
+     * @param contentType
+     * @param length
+     * @return null if the body should not be compressed
+     */
+    public String negotiate(HttpServerRequest request, String contentType, int length) {
+        if (length < minSize || isExcluded(contentType)) {
+            return null;
+        }
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        float gzip = -1, deflate = -1, any = -1;
+        for (String item : acceptEncoding.split(",")) {
+            String[] parts = item.split(";");
+            String coding = parts[0].trim();
+            float quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Float.parseFloat(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+                gzip = quality;
+            } else if (DEFLATE.equalsIgnoreCase(coding)) {
+                deflate = quality;
+            } else if ("*".equals(coding)) {
+                any = quality;
+            }
+        }
+        if (gzip < 0) {
+            gzip = any;
+        }
+        if (deflate < 0) {
+            deflate = any;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        if (deflate > 0) {
+            return DEFLATE;
+        }
+        return null;
+    }
+
+    /**
+     * compress the body by the content encoding
+     * 
+     * @param body
+     * @param encoding gzip or deflate
+     * @return
+     */
+    public Buffer compress(Buffer body, String encoding) {
+        boolean gzip = GZIP.equals(encoding);
+        byte[] input = body.getBytes();
+        Buffer output = Buffer.buffer(input.length / 2 + 32);
+        if (gzip) {
+            output.appendBytes(GZIP_HEADER);
+        }
+
+        Deflater deflater = new Deflater(level, gzip);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            byte[] chunk = new byte[Math.min(Math.max(input.length, 64), 8192)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                output.appendBytes(chunk, 0, count);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        if (gzip) {
+            CRC32 crc = new CRC32();
+            crc.update(input);
+            output.appendIntLE((int) crc.getValue());
+            output.appendIntLE(input.length);
+        }
+        return output;
+    }
+
+    private boolean isExcluded(String contentType) {
+        if (contentType != null && excludedTypes != null) {
+            for (String excludedType : excludedTypes) {
+                if (contentType.startsWith(excludedType)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * dispatch the request by a radix tree keyed on the http method and the path segments, instead of trying the routes
+ * one by one. the leaf of the tree is a small router holding the routes of one path, it's invoked by
+ * {@link Router#handleContext(RoutingContext)}, the request continues on the main router if the leaf doesn't accept
+ * it.
+ * <p>
+ * only the exact and templated paths, e.g. {@code /user/:name}, are indexed. the regex and wildcard paths stay on the
+ * main router. the first registered path wins if several paths match the request, if the routes of the path decline
+ * the request, e.g. by the produces or the path template, the request continues with the next matching path.
+ *
+ * @author dinstone
+ */
+public class RouteIndex implements Handler<RoutingContext> {
+
+    private static class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private Node param;
+
+        private Leaf leaf;
+
+    }
+
+    private static class Leaf {
+
+        private final Router router;
+
+        /**
+         * registration order of the path
+         */
+        private final int order;
+
+        private Leaf(Router router, int order) {
+            this.router = router;
+            this.order = order;
+        }
+
+    }
+
+    private final Map<HttpMethod, Node> methodRoots = new HashMap<>();
+
+    /**
+     * the paths of the routes without http method
+     */
+    private final Node anyRoot = new Node();
+
+    private final Map<String, Leaf> leaves = new HashMap<>();
+
+    private final Vertx vertx;
+
+    /**
+     * the context key of the matching leaves not tried yet
+     */
+    private final String candidatesKey;
+
+    public RouteIndex(Vertx vertx) {
+        this.vertx = vertx;
+        this.candidatesKey = RouteIndex.class.getName() + "@" + System.identityHashCode(this);
+    }
+
+    /**
+     * the path is indexable if each segment is a literal or a whole path parameter
+     * 
+     * @param definition
+     * @return
+     */
+    public static boolean isIndexable(RouteDefinition definition) {
+        if (definition.pathIsRegex()) {
+            return false;
+        }
+        for (String segment : segments(definition.getRoutePath())) {
+            if (segment.indexOf('*') >= 0) {
+                return false;
+            }
+            if (segment.lastIndexOf(':') > 0) {
+                return false;
+            }
+            if (segment.charAt(0) == ':' && !isParamName(segment.substring(1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * get the leaf router of the route path and index it by the http methods, no method means any method.
+     * 
+     * @param routePath
+     * @param methods
+     * @return
+     */
+    public synchronized Router getRouter(String routePath, List<HttpMethod> methods) {
+        String[] segments = segments(routePath);
+        // the paths of the same shape share the leaf, e.g. /user/:name and /user/:id
+        String shape = shape(routePath);
+        Leaf leaf = leaves.get(shape);
+        if (leaf == null) {
+            Router router = Router.router(vertx);
+            // the request declined by the routes of the leaf continues with the next matching leaf
+            router.route().order(Integer.MAX_VALUE).handler(this::next);
+            leaf = new Leaf(router, leaves.size());
+            leaves.put(shape, leaf);
+        }
+
+        if (methods.isEmpty()) {
+            insert(anyRoot, segments, leaf);
+        }
+        for (HttpMethod method : methods) {
+            insert(methodRoots.computeIfAbsent(method, m -> new Node()), segments, leaf);
+        }
+        return leaf.router;
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        String[] segments = segments(relativePath(context));
+        List<Leaf> candidates = new ArrayList<>(2);
+        Node root = methodRoots.get(context.request().method());
+        if (root != null) {
+            lookup(root, segments, 0, candidates);
+        }
+        lookup(anyRoot, segments, 0, candidates);
+
+        if (candidates.isEmpty()) {
+            context.next();
+            return;
+        }
+
+        Iterator<Leaf> iterator;
+        if (candidates.size() == 1) {
+            iterator = Collections.emptyIterator();
+        } else {
+            candidates.sort(Comparator.comparingInt(leaf -> leaf.order));
+            iterator = candidates.iterator();
+            iterator.next();
+        }
+        context.put(candidatesKey, iterator);
+        candidates.get(0).router.handleContext(context);
+    }
+
+    /**
+     * dispatch the request to the next matching leaf, the request continues on the main router if there is none
+     */
+    private void next(RoutingContext context) {
+        Iterator<Leaf> candidates = context.get(candidatesKey);
+        if (candidates != null && candidates.hasNext()) {
+            candidates.next().router.handleContext(context);
+        } else {
+            context.next();
+        }
+    }
+
+    private static void insert(Node root, String[] segments, Leaf leaf) {
+        Node node = root;
+        for (String segment : segments) {
+            if (segment.charAt(0) == ':') {
+                if (node.param == null) {
+                    node.param = new Node();
+                }
+                node = node.param;
+            } else {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+        }
+        node.leaf = leaf;
+    }
+
+    /**
+     * find the leaves of the paths matching the segments
+     */
+    private static void lookup(Node node, String[] segments, int index, List<Leaf> leaves) {
+        if (index == segments.length) {
+            if (node.leaf != null && !leaves.contains(node.leaf)) {
+                leaves.add(node.leaf);
+            }
+            return;
+        }
+
+        Node child = node.children.get(segments[index]);
+        if (child != null) {
+            lookup(child, segments, index + 1, leaves);
+        }
+        if (node.param != null) {
+            lookup(node.param, segments, index + 1, leaves);
+        }
+    }
+
+    /**
+     * the shape of the path matches the same requests as the path, the whole path parameters are unnamed, e.g.
+     * {@code /user/:} for {@code /user/:name} and {@code /user/:id}.
+     * 
+     * @param routePath
+     * @return
+     */
+    static String shape(String routePath) {
+        StringBuilder shape = new StringBuilder();
+        for (String segment : segments(routePath)) {
+            boolean param = segment.charAt(0) == ':' && isParamName(segment.substring(1));
+            shape.append('/').append(param ? ":" : segment);
+        }
+        return shape.length() == 0 ? "/" : shape.toString();
+    }
+
+    /**
+     * the path relative to the mount point of the router
+     */
+    static String relativePath(RoutingContext context) {
+        String path = context.normalizedPath();
+        String mountPoint = context.mountPoint();
+        if (mountPoint == null || mountPoint.isEmpty() || "/".equals(mountPoint)) {
+            return path;
+        }
+
+        int strip = mountPoint.charAt(mountPoint.length() - 1) == '/' ? mountPoint.length() - 1 : mountPoint.length();
+        return path.length() > strip ? path.substring(strip) : "/";
+    }
+
+    static String[] segments(String path) {
+        int count = 0;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            if (path.charAt(i) != '/' && (i == 0 || path.charAt(i - 1) == '/')) {
+                count++;
+            }
+        }
+
+        String[] segments = new String[count];
+        int index = 0;
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            if (i == length || path.charAt(i) == '/') {
+                if (start >= 0) {
+                    segments[index++] = path.substring(start, i);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        return segments;
+    }
+
+    private static boolean isParamName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '$') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
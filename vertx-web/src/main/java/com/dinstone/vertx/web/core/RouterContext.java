@@ -15,32 +15,370 @@
  */
 package com.dinstone.vertx.web.core;
 
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
+import com.dinstone.vertx.web.ConcurrencyLimiter;
+import com.dinstone.vertx.web.ErrorRenderer;
 import com.dinstone.vertx.web.ExceptionHandler;
 import com.dinstone.vertx.web.MessageConverter;
+import com.dinstone.vertx.web.RouterOptions;
+import com.dinstone.vertx.web.model.ArgType;
+import com.dinstone.vertx.web.model.Argument;
+import com.dinstone.vertx.web.model.ExecutionMode;
+import com.dinstone.vertx.web.model.RouteDefinition;
 
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.core.impl.logging.Logger;
+import io.vertx.core.impl.logging.LoggerFactory;
+import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.ext.web.impl.ParsableMIMEValue;
 
 public class RouterContext {
 
-    private final ExceptionHandler<Throwable> defaultExceptionHandler = new DefaultExceptionHandler();
+    private static final Logger LOG = LoggerFactory.getLogger(RouterContext.class);
+
+    private static final int MEDIA_TYPE_CACHE_SIZE = 256;
+
+    private static final Object NO_CONVERTER = new Object();
+
+    private ErrorRenderer errorRenderer = new JsonErrorRenderer();
+
+    private ExceptionHandler<Throwable> defaultExceptionHandler = new DefaultExceptionHandler(errorRenderer);
+
+    private final WorkerPoolExecutor workerPoolExecutor = new WorkerPoolExecutor();
+
+    private final Map<RouteDefinition, BlockingExecutor> blockingExecutors = new ConcurrentHashMap<>();
+
+    private final Map<String, WorkerPoolExecutor> workerPoolExecutors = new ConcurrentHashMap<>();
+
+    private BlockingExecutor virtualThreadExecutor;
 
     private final Map<String, MessageConverter<?>> messageConverters = new HashMap<>();
 
+    private final Map<String, Object> mediaTypeConverters = new ConcurrentHashMap<>();
+
+    private final Map<RouteDefinition, MessageConverter<?>> produceConverters = new ConcurrentHashMap<>();
+
+    private final Map<RouteDefinition, MessageConverter<?>> consumeConverters = new ConcurrentHashMap<>();
+
     private final Map<Class<?>, ExceptionHandler<?>> exceptionHandlers = new LinkedHashMap<>();
 
+    private volatile ClassValue<ExceptionHandler<?>> exceptionHandlerCache = createExceptionHandlerCache();
+
+    private final List<RouteDefinition> routeDefinitions = new CopyOnWriteArrayList<>();
+
+    private final Map<RouteDefinition, ConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    private ConcurrencyLimiter.Factory limiterFactory;
+
+    private ResponseCache responseCache;
+
+    private final Map<RouteDefinition, ResponseCompressor> responseCompressors = new ConcurrentHashMap<>();
+
+    private final Map<RouteDefinition, PathTemplate> pathTemplates = new ConcurrentHashMap<>();
+
+    private final Map<String, BodyHandler> bodyHandlers = new ConcurrentHashMap<>();
+
+    private BodyHandler bodyHandler;
+
+    private RouteIndex routeIndex;
+
+    private final Vertx vertx;
+
+    private final RouterOptions routerOptions;
+
+    private final ErrorLogger errorLogger;
+
+    public RouterContext(Vertx vertx) {
+        this(vertx, new RouterOptions());
+    }
+
+    public RouterContext(Vertx vertx, RouterOptions routerOptions) {
+        this.vertx = vertx;
+        this.routerOptions = routerOptions;
+        this.errorLogger = new ErrorLogger(vertx, routerOptions.getErrorLogLimit(),
+            routerOptions.getErrorLogInterval(), routerOptions.getErrorLogSampleRate());
+    }
+
+    public Vertx getVertx() {
+        return vertx;
+    }
+
+    public RouterOptions getRouterOptions() {
+        return routerOptions;
+    }
+
+    public ErrorLogger getErrorLogger() {
+        return errorLogger;
+    }
+
+    /**
+     * get the executor of the blocking route method by its execution mode, the virtual thread mode falls back to the
+     * worker pool on JVMs without virtual threads. the executor is resolved once per route.
+     * 
+     * @param definition
+     * @return
+     */
+    public BlockingExecutor getBlockingExecutor(RouteDefinition definition) {
+        return blockingExecutors.computeIfAbsent(definition, this::resolveBlockingExecutor);
+    }
+
+    private BlockingExecutor resolveBlockingExecutor(RouteDefinition definition) {
+        if (definition.getWorkerPool() != null) {
+            return getWorkerPoolExecutor(definition);
+        }
+
+        ExecutionMode executionMode = definition.getExecutionMode();
+        if (executionMode == null) {
+            executionMode = routerOptions.getExecutionMode();
+        }
+
+        if (executionMode == ExecutionMode.VIRTUAL_THREAD) {
+            if (VirtualThreadExecutor.isSupported()) {
+                if (virtualThreadExecutor == null) {
+                    virtualThreadExecutor = new VirtualThreadExecutor();
+                }
+                return virtualThreadExecutor;
+            }
+            LOG.warn("virtual thread is not supported, execute on worker pool for " + definition);
+        }
+        return workerPoolExecutor;
+    }
+
+    private WorkerPoolExecutor getWorkerPoolExecutor(RouteDefinition definition) {
+        WorkerPoolExecutor executor = workerPoolExecutors.computeIfAbsent(definition.getWorkerPool(), name -> {
+            WorkerExecutor workerExecutor = vertx.createSharedWorkerExecutor(name, definition.getWorkerPoolSize(),
+                definition.getWorkerMaxExecuteTime(), TimeUnit.MILLISECONDS);
+            return new WorkerPoolExecutor(name, workerExecutor, definition.getWorkerPoolSize(),
+                definition.getWorkerMaxExecuteTime());
+        });
+        // the pool is shared by name, its settings are taken from the first route
+        if (executor.getPoolSize() != definition.getWorkerPoolSize()
+                || executor.getMaxExecuteTime() != definition.getWorkerMaxExecuteTime()) {
+            throw new IllegalStateException("worker pool '" + executor.getName() + "' is declared with size "
+                    + executor.getPoolSize() + " and maxExecuteTime " + executor.getMaxExecuteTime()
+                    + ", but redeclared differently by " + definition);
+        }
+        return executor;
+    }
+
+    /**
+     * get the worker pools used by the blocking routes, the shared worker pool is the first one.
+     * 
+     * @return
+     */
+    public List<WorkerPoolExecutor> getWorkerPoolExecutors() {
+        List<WorkerPoolExecutor> executors = new ArrayList<>(workerPoolExecutors.size() + 1);
+        executors.add(workerPoolExecutor);
+        executors.addAll(workerPoolExecutors.values());
+        return executors;
+    }
+
+    public void setLimiterFactory(ConcurrencyLimiter.Factory limiterFactory) {
+        this.limiterFactory = limiterFactory;
+    }
+
+    /**
+     * create the concurrency limiter of the route. the static limit of the route wins, then the adaptive limiter for
+     * the routes dispatched asynchronously, and then the default static limit of the router.
+     * 
+     * @param definition
+     * @param dispatched the route method is blocking or returns a future
+     * @return null if the route is unlimited
+     */
+    public ConcurrencyLimiter createConcurrencyLimiter(RouteDefinition definition, boolean dispatched) {
+        ConcurrencyLimiter limiter = null;
+        if (definition.getMaxConcurrency() != null) {
+            if (definition.getMaxConcurrency() > 0) {
+                limiter = new FixedConcurrencyLimiter(definition.getMaxConcurrency());
+            }
+        } else if (dispatched && limiterFactory != null) {
+            limiter = limiterFactory.create(definition);
+        } else if (routerOptions.getMaxConcurrency() > 0) {
+            limiter = new FixedConcurrencyLimiter(routerOptions.getMaxConcurrency());
+        }
+
+        if (limiter != null) {
+            concurrencyLimiters.put(definition, limiter);
+        }
+        return limiter;
+    }
+
+    /**
+     * register the definition of the resolved route
+     * 
+     * @param definition
+     */
+    public void addRouteDefinition(RouteDefinition definition) {
+        routeDefinitions.add(definition);
+    }
+
+    /**
+     * get the definitions of the resolved routes in the registering order
+     * 
+     * @return
+     */
+    public List<RouteDefinition> getRouteDefinitions() {
+        return Collections.unmodifiableList(routeDefinitions);
+    }
+
+    /**
+     * get the dispatch index of the routes, null if the indexed dispatch is disabled
+     * 
+     * @return
+     */
+    public synchronized RouteIndex getRouteIndex() {
+        if (routeIndex == null && routerOptions.isIndexedDispatch()) {
+            routeIndex = new RouteIndex(vertx);
+        }
+        return routeIndex;
+    }
+
+    /**
+     * get the concurrency limiters of the routes, the current limit and in-flight requests can be exported as metrics.
+     * 
+     * @return
+     */
+    public Map<RouteDefinition, ConcurrencyLimiter> getConcurrencyLimiters() {
+        return Collections.unmodifiableMap(concurrencyLimiters);
+    }
+
+    /**
+     * get the response cache shared by the {@code @CacheResponse} routes, it's bounded by the response cache size of
+     * the router options.
+     * 
+     * @return
+     */
+    public synchronized ResponseCache getResponseCache() {
+        if (responseCache == null) {
+            responseCache = new ResponseCache(routerOptions.getResponseCacheSize());
+        }
+        return responseCache;
+    }
+
+    /**
+     * create the response compressor of the route, the compression of the route overrides the router options.
+     * 
+     * @param definition
+     * @return null if the response of the route is not compressed
+     */
+    public ResponseCompressor createResponseCompressor(RouteDefinition definition) {
+        boolean compression = definition.getCompression() != null ? definition.getCompression()
+                : routerOptions.isCompressionSupported();
+        int level = definition.getCompressionLevel() >= 0 ? definition.getCompressionLevel()
+                : routerOptions.getCompressionLevel();
+        if (!compression || level == 0) {
+            return null;
+        }
+
+        int minSize = definition.getCompressionMinSize() >= 0 ? definition.getCompressionMinSize()
+                : routerOptions.getCompressionMinSize();
+        ResponseCompressor compressor = new ResponseCompressor(level, minSize,
+            routerOptions.getCompressionExcludedTypes());
+        responseCompressors.put(definition, compressor);
+        return compressor;
+    }
+
+    public ResponseCompressor getResponseCompressor(RouteDefinition definition) {
+        return responseCompressors.get(definition);
+    }
+
+    /**
+     * create the path template of the route, the template is compiled once when the route is registered.
+     * 
+     * @param definition
+     * @return null if the path of the route is not a template
+     */
+    public PathTemplate createPathTemplate(RouteDefinition definition) {
+        if (definition.getPathTemplate() == null) {
+            return null;
+        }
+
+        PathTemplate template = PathTemplate.compile(definition.getPathTemplate());
+        pathTemplates.put(definition, template);
+        return template;
+    }
+
+    public PathTemplate getPathTemplate(RouteDefinition definition) {
+        return pathTemplates.get(definition);
+    }
+
+    /**
+     * set the body handler shared by the routes without {@code @BodyLimit}, it replaces the one built by the router
+     * options.
+     * 
+     * @param bodyHandler
+     */
+    public void setBodyHandler(BodyHandler bodyHandler) {
+        this.bodyHandler = bodyHandler;
+    }
+
+    /**
+     * get the body limit of the route, the body limit of the route overrides the router options.
+     * 
+     * @param definition
+     * @return -1 if unlimited
+     */
+    public long getBodyLimit(RouteDefinition definition) {
+        return definition.getBodyLimit() >= 0 ? definition.getBodyLimit() : routerOptions.getBodyLimit();
+    }
+
+    /**
+     * get the body handler of the route, the routes with the same body limit and file uploads share one.
+     * 
+     * @param definition
+     * @return
+     */
+    public BodyHandler getBodyHandler(RouteDefinition definition) {
+        if (bodyHandler != null && definition.getBodyLimit() < 0 && definition.isFileUploads()) {
+            return bodyHandler;
+        }
+
+        final long bodyLimit = getBodyLimit(definition);
+        final boolean fileUploads = routerOptions.isFileUploads() && definition.isFileUploads();
+        return bodyHandlers.computeIfAbsent(bodyLimit + "/" + fileUploads,
+            k -> BodyHandler.create(fileUploads).setBodyLimit(bodyLimit)
+                .setUploadsDirectory(routerOptions.getUploadsDirectory())
+                .setDeleteUploadedFilesOnEnd(routerOptions.isDeleteUploadedFilesOnEnd()));
+    }
+
+    /**
+     * close the dedicated worker pools created by this context, it's called by {@code RouterBuilder#close()}.
+     */
+    public void close() {
+        for (WorkerPoolExecutor executor : workerPoolExecutors.values()) {
+            executor.close();
+        }
+        workerPoolExecutors.clear();
+        blockingExecutors.clear();
+    }
+
+    /**
+     * get the message converter of the first supported media type, the media type is parsed once and cached by the raw
+     * string.
+     * 
+     * @param mediaTypes
+     * @return
+     */
     @SuppressWarnings("unchecked")
     public <T> MessageConverter<T> getMessageConverter(String... mediaTypes) {
         if (mediaTypes != null) {
             for (String mediaType : mediaTypes) {
-                mediaType = new ParsableMIMEValue(mediaType).forceParse().value();
-                MessageConverter<?> converter = messageConverters.get(mediaType);
+                MessageConverter<?> converter = lookupMessageConverter(mediaType);
                 if (converter != null) {
                     return (MessageConverter<T>) converter;
                 }
@@ -49,11 +387,124 @@ public class RouterContext {
         return null;
     }
 
+    private MessageConverter<?> lookupMessageConverter(String mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+
+        Object converter = mediaTypeConverters.get(mediaType);
+        if (converter == null) {
+            converter = messageConverters.get(new ParsableMIMEValue(mediaType).forceParse().value());
+            if (converter == null) {
+                converter = NO_CONVERTER;
+            }
+            // the raw header is client controlled, start over instead of growing without bound
+            if (mediaTypeConverters.size() >= MEDIA_TYPE_CACHE_SIZE) {
+                mediaTypeConverters.clear();
+            }
+            mediaTypeConverters.put(mediaType, converter);
+        }
+        return converter == NO_CONVERTER ? null : (MessageConverter<?>) converter;
+    }
+
+    /**
+     * resolve the produce and consume message converters of the route when it's registered
+     * 
+     * @param definition
+     */
+    public void resolveMessageConverters(RouteDefinition definition) {
+        MessageConverter<?> converter = getMessageConverter(definition.getProduces());
+        if (converter != null) {
+            produceConverters.put(definition, converter);
+            Class<?> resultType = getResultType(definition);
+            if (resultType != null) {
+                converter.prepare(resultType);
+            }
+        }
+        converter = getMessageConverter(definition.getConsumes());
+        if (converter != null) {
+            consumeConverters.put(definition, converter);
+            for (Argument argument : definition.getArguments()) {
+                if (argument.getArgType() == ArgType.BODY) {
+                    converter.prepare(argument.getParamClazz());
+                }
+            }
+        }
+    }
+
+    /**
+     * the concrete class of the route result, the value type of the future result
+     */
+    private static Class<?> getResultType(RouteDefinition definition) {
+        Type type = definition.getMethod().getGenericReturnType();
+        if (type instanceof ParameterizedType && Future.class.isAssignableFrom(definition.getReturnType())) {
+            type = ((ParameterizedType) type).getActualTypeArguments()[0];
+        }
+        if (!(type instanceof Class)) {
+            return null;
+        }
+
+        Class<?> clazz = (Class<?>) type;
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers()) || clazz.isPrimitive()
+                || clazz == Void.class) {
+            return null;
+        }
+        return clazz;
+    }
+
+    /**
+     * get the message converter of the response, the route with single produces needs no negotiation.
+     * 
+     * @param definition
+     * @param acceptableContentType the content type negotiated by the route produces
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageConverter<T> getProduceConverter(RouteDefinition definition, String acceptableContentType) {
+        String[] produces = definition.getProduces();
+        if (acceptableContentType == null || produces == null || produces.length == 1) {
+            return (MessageConverter<T>) produceConverters.get(definition);
+        }
+        return (MessageConverter<T>) lookupMessageConverter(acceptableContentType);
+    }
+
+    /**
+     * get the message converter of the request body by the Content-Type header, falls back to the route consumes.
+     * 
+     * @param definition
+     * @param contentType
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageConverter<T> getConsumeConverter(RouteDefinition definition, String contentType) {
+        MessageConverter<?> converter = lookupMessageConverter(contentType);
+        if (converter == null) {
+            converter = consumeConverters.get(definition);
+        }
+        return (MessageConverter<T>) converter;
+    }
+
     public void addMessageConverter(MessageConverter<?>... converters) {
         for (MessageConverter<?> converter : converters) {
             String mediaType = new ParsableMIMEValue(converter.mediaType()).forceParse().value();
             messageConverters.put(mediaType, converter);
         }
+        mediaTypeConverters.clear();
+    }
+
+    public ErrorRenderer getErrorRenderer() {
+        return errorRenderer;
+    }
+
+    /**
+     * set the renderer of the default exception handler and unhandled exceptions
+     * 
+     * @param errorRenderer
+     */
+    public void setErrorRenderer(ErrorRenderer errorRenderer) {
+        this.errorRenderer = errorRenderer;
+        this.defaultExceptionHandler = new DefaultExceptionHandler(errorRenderer);
+        this.exceptionHandlerCache = createExceptionHandlerCache();
     }
 
     public void addExceptionHandler(ExceptionHandler<?>... handlers) {
@@ -61,20 +512,52 @@ public class RouterContext {
             Type generic = getGenericType(exceptionHandler.getClass());
             exceptionHandlers.put((Class<?>) generic, exceptionHandler);
         }
+        // the resolved handlers are stale
+        exceptionHandlerCache = createExceptionHandlerCache();
     }
 
+    /**
+     * get the exception handler of the exception type, it's resolved once per type.
+     * 
+     * @param t
+     * @return
+     */
     public ExceptionHandler<?> getExceptionHandler(Class<?> t) {
-        ExceptionHandler<?> exceptionHandler = exceptionHandlers.get(t);
-        if (exceptionHandler != null) {
-            return exceptionHandler;
+        return exceptionHandlerCache.get(t);
+    }
+
+    private ClassValue<ExceptionHandler<?>> createExceptionHandlerCache() {
+        return new ClassValue<ExceptionHandler<?>>() {
+
+            @Override
+            protected ExceptionHandler<?> computeValue(Class<?> type) {
+                return resolveExceptionHandler(type);
+            }
+        };
+    }
+
+    private ExceptionHandler<?> resolveExceptionHandler(Class<?> t) {
+        // the handler of the nearest super class wins
+        for (Class<?> type = t; type != null; type = type.getSuperclass()) {
+            ExceptionHandler<?> exceptionHandler = exceptionHandlers.get(type);
+            if (exceptionHandler != null) {
+                return exceptionHandler;
+            }
         }
 
+        // then the handler of the interface in registration order
         for (Entry<Class<?>, ExceptionHandler<?>> entry : exceptionHandlers.entrySet()) {
-            if (isCompatibleType(t, entry.getKey())) {
+            if (entry.getKey() != null && entry.getKey().isInterface() && isCompatibleType(t, entry.getKey())) {
                 return entry.getValue();
             }
         }
 
+        // the handler of unknown type handles all
+        ExceptionHandler<?> exceptionHandler = exceptionHandlers.get(null);
+        if (exceptionHandler != null) {
+            return exceptionHandler;
+        }
+
         return defaultExceptionHandler;
     }
 
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * share one in-flight call among the concurrent callers with the same key, the call is removed when it completes so
+ * the next caller starts a new one.
+ *
+ * @author dinstone
+ */
+public class SingleFlight {
+
+    @FunctionalInterface
+    public interface Call {
+
+        Future<Object> call() throws Throwable;
+    }
+
+    private final Map<Object, Future<Object>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * create the call key from the bound arguments and the negotiated content type
+     * 
+     * @param args
+     * @param contentType
+     * @return
+     */
+    public static Object key(Object[] args, String contentType) {
+        Object[] items = Arrays.copyOf(args, args.length + 1);
+        items[args.length] = contentType;
+        return Arrays.asList(items);
+    }
+
+    public Future<Object> execute(Object key, Call call) {
+        Promise<Object> promise = Promise.promise();
+        Future<Object> shared = calls.putIfAbsent(key, promise.future());
+        if (shared != null) {
+            return shared;
+        }
+
+        // the key is published, the shared call must be removed and completed on every path
+        try {
+            Future<Object> future = call.call();
+            if (future == null) {
+                future = Future.failedFuture(new IllegalStateException("the call returns null future"));
+            }
+            future.onComplete(ar -> complete(key, promise, ar));
+        } catch (Throwable e) {
+            complete(key, promise, Future.failedFuture(e));
+        }
+        return promise.future();
+    }
+
+    private void complete(Object key, Promise<Object> promise, AsyncResult<Object> ar) {
+        calls.remove(key, promise.future());
+        if (ar.succeeded()) {
+            promise.tryComplete(ar.result());
+        } else {
+            promise.tryFail(ar.cause());
+        }
+    }
+
+    /**
+     * @return the number of in-flight calls
+     */
+    public int size() {
+        return calls.size();
+    }
+
+}
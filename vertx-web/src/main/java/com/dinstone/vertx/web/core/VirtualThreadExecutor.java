@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * execute the blocking route method on a virtual thread per task, only available on Java 21+.
+ *
+ * @author dinstone
+ */
+public class VirtualThreadExecutor implements BlockingExecutor {
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private static ExecutorService createExecutor() {
+        try {
+            // lookup by reflection, keep compatible with Java 8
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public VirtualThreadExecutor() {
+        if (!isSupported()) {
+            throw new IllegalStateException("virtual thread is not supported by the JVM");
+        }
+    }
+
+    public static boolean isSupported() {
+        return EXECUTOR != null;
+    }
+
+    @Override
+    public <T> void executeBlocking(RoutingContext context, Handler<Promise<T>> blockingCodeHandler,
+            Handler<AsyncResult<T>> resultHandler) {
+        Context vertxContext = context.vertx().getOrCreateContext();
+        Promise<T> promise = Promise.promise();
+        promise.future().onComplete(ar -> vertxContext.runOnContext(v -> resultHandler.handle(ar)));
+
+        try {
+            EXECUTOR.execute(() -> {
+                try {
+                    blockingCodeHandler.handle(promise);
+                } catch (Throwable e) {
+                    promise.tryFail(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.fail(e);
+        }
+    }
+
+}
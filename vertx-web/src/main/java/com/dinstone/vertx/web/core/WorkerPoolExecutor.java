@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.WorkerExecutor;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * execute the blocking route method on the vert.x worker pool or a dedicated {@link WorkerExecutor}, and count the
+ * queued and active tasks of the pool.
+ *
+ * @author dinstone
+ */
+public class WorkerPoolExecutor implements BlockingExecutor {
+
+    public static final String DEFAULT_POOL_NAME = "default";
+
+    private final AtomicInteger queuedCount = new AtomicInteger();
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final String name;
+
+    private final WorkerExecutor workerExecutor;
+
+    private final int poolSize;
+
+    private final long maxExecuteTime;
+
+    public WorkerPoolExecutor() {
+        this(DEFAULT_POOL_NAME, null, 0, 0);
+    }
+
+    public WorkerPoolExecutor(String name, WorkerExecutor workerExecutor, int poolSize, long maxExecuteTime) {
+        this.name = name;
+        this.workerExecutor = workerExecutor;
+        this.poolSize = poolSize;
+        this.maxExecuteTime = maxExecuteTime;
+    }
+
+    @Override
+    public <T> void executeBlocking(RoutingContext context, Handler<Promise<T>> blockingCodeHandler,
+            Handler<AsyncResult<T>> resultHandler) {
+        queuedCount.incrementAndGet();
+        Handler<Promise<T>> countingHandler = promise -> {
+            queuedCount.decrementAndGet();
+            activeCount.incrementAndGet();
+            try {
+                blockingCodeHandler.handle(promise);
+            } finally {
+                activeCount.decrementAndGet();
+            }
+        };
+
+        if (workerExecutor != null) {
+            workerExecutor.executeBlocking(countingHandler, false, resultHandler);
+        } else {
+            context.vertx().executeBlocking(countingHandler, false, resultHandler);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the size of the dedicated pool, 0 for the vert.x worker pool
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return the max execute time in milliseconds of the dedicated pool, 0 for the vert.x worker pool
+     */
+    public long getMaxExecuteTime() {
+        return maxExecuteTime;
+    }
+
+    /**
+     * @return the number of tasks waiting for a worker thread
+     */
+    public int getQueuedCount() {
+        return queuedCount.get();
+    }
+
+    /**
+     * @return the number of tasks running on a worker thread
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    public void close() {
+        if (workerExecutor != null) {
+            workerExecutor.close();
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.model;
+
+/**
+ * execution mode of the blocking route method
+ */
+public enum ExecutionMode {
+
+    /**
+     * execute on the vert.x worker pool
+     */
+    WORKER,
+
+    /**
+     * execute on a virtual thread, falls back to the worker pool when the JVM does not support virtual threads
+     */
+    VIRTUAL_THREAD
+
+}
@@ -42,6 +42,11 @@ public class RouteDefinition {
 	 */
 	private String routePath;
 
+	/**
+	 * Path template of the typed segments, e.g. /user/{id:long}, null if the path is not a template
+	 */
+	private String pathTemplate;
+
 	private String[] consumes;
 
 	private String[] produces;
@@ -57,6 +62,61 @@ public class RouteDefinition {
 
 	private List<Argument> arguments = new LinkedList<>();
 
+	/**
+	 * Execution mode of blocking method, null means the router default
+	 */
+	private ExecutionMode executionMode;
+
+	/**
+	 * Dedicated worker pool of blocking method, null means the shared worker pool
+	 */
+	private String workerPool;
+
+	private int workerPoolSize;
+
+	private long workerMaxExecuteTime;
+
+	/**
+	 * Request deadline in milliseconds, null means the router default
+	 */
+	private Long timeout;
+
+	/**
+	 * Max in-flight requests, null means the router default
+	 */
+	private Integer maxConcurrency;
+
+	/**
+	 * Share one in-flight invocation among identical requests
+	 */
+	private boolean singleFlight;
+
+	/**
+	 * Time to live of the cached response, 0 means not cached
+	 */
+	private long cacheTtl;
+
+	/**
+	 * Tag the response with entity tag
+	 */
+	private boolean etag;
+
+	/**
+	 * Compress the response body, null means the router default
+	 */
+	private Boolean compression;
+
+	private int compressionLevel = -1;
+
+	private int compressionMinSize = -1;
+
+	/**
+	 * Max body bytes, -1 means the router default
+	 */
+	private long bodyLimit = -1;
+
+	private boolean fileUploads = true;
+
 	public RouteDefinition(String servicePath, String[] produces, String[] consumes, Method method) {
 		this.servicePath = servicePath;
 		this.produces = produces;
@@ -83,6 +143,29 @@ public class RouteDefinition {
 		} else {
 			routePath = servicePath + methodPath;
 		}
+
+		// the template segments are routed as path parameters, e.g. {id:long} as :id
+		pathTemplate = null;
+		if (!pathIsRegex() && routePath.indexOf('{') >= 0) {
+			StringBuilder path = new StringBuilder();
+			String[] segments = routePath.split(DELIMITER, -1);
+			for (int i = 0; i < segments.length; i++) {
+				String segment = segments[i];
+				if (i > 0) {
+					path.append(DELIMITER);
+				}
+				if (segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+					int colon = segment.indexOf(':');
+					path.append(':').append(segment, 1, colon > 0 ? colon : segment.length() - 1);
+					pathTemplate = routePath;
+				} else {
+					path.append(segment);
+				}
+			}
+			if (pathTemplate != null) {
+				routePath = path.toString();
+			}
+		}
 	}
 
 	public void setConsumes(String[] consumes) {
@@ -119,10 +202,117 @@ public class RouteDefinition {
 		}
 	}
 
+	public ExecutionMode getExecutionMode() {
+		return executionMode;
+	}
+
+	public void setExecutionMode(ExecutionMode executionMode) {
+		if (executionMode != null) {
+			this.executionMode = executionMode;
+		}
+	}
+
+	public String getWorkerPool() {
+		return workerPool;
+	}
+
+	public int getWorkerPoolSize() {
+		return workerPoolSize;
+	}
+
+	public long getWorkerMaxExecuteTime() {
+		return workerMaxExecuteTime;
+	}
+
+	public void setWorkerPool(String workerPool, int workerPoolSize, long workerMaxExecuteTime) {
+		this.workerPool = workerPool;
+		this.workerPoolSize = workerPoolSize;
+		this.workerMaxExecuteTime = workerMaxExecuteTime;
+	}
+
+	public Long getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(Long timeout) {
+		if (timeout != null) {
+			this.timeout = timeout;
+		}
+	}
+
+	public Integer getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(Integer maxConcurrency) {
+		if (maxConcurrency != null) {
+			this.maxConcurrency = maxConcurrency;
+		}
+	}
+
+	public boolean isSingleFlight() {
+		return singleFlight;
+	}
+
+	public void setSingleFlight(boolean singleFlight) {
+		this.singleFlight = singleFlight;
+	}
+
+	public long getCacheTtl() {
+		return cacheTtl;
+	}
+
+	public void setCacheTtl(long cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public boolean isEtag() {
+		return etag;
+	}
+
+	public void setEtag(boolean etag) {
+		this.etag = etag;
+	}
+
+	public Boolean getCompression() {
+		return compression;
+	}
+
+	public int getCompressionLevel() {
+		return compressionLevel;
+	}
+
+	public int getCompressionMinSize() {
+		return compressionMinSize;
+	}
+
+	public void setCompression(boolean compression, int compressionLevel, int compressionMinSize) {
+		this.compression = compression;
+		this.compressionLevel = compressionLevel;
+		this.compressionMinSize = compressionMinSize;
+	}
+
+	public long getBodyLimit() {
+		return bodyLimit;
+	}
+
+	public boolean isFileUploads() {
+		return fileUploads;
+	}
+
+	public void setBodyLimit(long bodyLimit, boolean fileUploads) {
+		this.bodyLimit = bodyLimit;
+		this.fileUploads = fileUploads;
+	}
+
 	public String getRoutePath() {
 		return routePath;
 	}
 
+	public String getPathTemplate() {
+		return pathTemplate;
+	}
+
 	public String[] getConsumes() {
 		return consumes;
 	}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+
+public class DefaultExceptionHandlerTest {
+
+    @Test
+    public void testUnknownCause() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            DefaultExceptionHandler exceptionHandler = new DefaultExceptionHandler();
+            Router router = Router.router(vertx);
+            router.route("/unknown").handler(context -> exceptionHandler.handle(null, context));
+            router.route("/known").handler(context -> exceptionHandler.handle(new IllegalStateException(), context));
+            HttpServer server = vertx.createHttpServer().requestHandler(router).listen(0).toCompletionStage()
+                .toCompletableFuture().get();
+
+            // the unknown cause keeps the status 500 with the code 503
+            JsonObject body = request(vertx, server.actualPort(), "/unknown", 500);
+            assertEquals("503", body.getString("code"));
+
+            body = request(vertx, server.actualPort(), "/known", 500);
+            assertEquals("500", body.getString("code"));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private static JsonObject request(Vertx vertx, int port, String uri, int status) throws Exception {
+        CompletableFuture<HttpClientResponse> response = new CompletableFuture<>();
+        CompletableFuture<JsonObject> body = new CompletableFuture<>();
+        vertx.createHttpClient().request(HttpMethod.GET, port, "localhost", uri).compose(req -> req.send())
+            .compose(res -> {
+                response.complete(res);
+                return res.body();
+            }).onSuccess(buff -> body.complete(buff.toJsonObject())).onFailure(e -> {
+                response.completeExceptionally(e);
+                body.completeExceptionally(e);
+            });
+        assertEquals(status, response.get().statusCode());
+        return body.get();
+    }
+
+}
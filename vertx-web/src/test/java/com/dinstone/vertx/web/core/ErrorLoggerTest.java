@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Vertx;
+
+public class ErrorLoggerTest {
+
+    private static class RecordingErrorLogger extends ErrorLogger {
+
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        private final List<Throwable> causes = new CopyOnWriteArrayList<>();
+
+        RecordingErrorLogger(Vertx vertx, int limit, long interval, int sampleRate) {
+            super(vertx, limit, interval, sampleRate);
+        }
+
+        @Override
+        void error(String message, Throwable e) {
+            messages.add(message);
+            causes.add(e);
+        }
+    }
+
+    private final RouteDefinition definition = new RouteDefinition("", null, null, null);
+
+    @Test
+    public void testLimit() {
+        RecordingErrorLogger logger = new RecordingErrorLogger(null, 2, 60000, 0);
+        for (int i = 0; i < 5; i++) {
+            logger.log(definition, new IllegalStateException());
+        }
+        assertEquals(2, logger.messages.size());
+        assertNotNull(logger.causes.get(1));
+
+        // the limit is counted per exception type
+        logger.log(definition, new IllegalArgumentException());
+        assertEquals(3, logger.messages.size());
+    }
+
+    @Test
+    public void testNoInterval() {
+        RecordingErrorLogger logger = new RecordingErrorLogger(null, 2, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            logger.log(definition, new IllegalStateException());
+        }
+        assertEquals(5, logger.messages.size());
+    }
+
+    @Test
+    public void testSampling() {
+        RecordingErrorLogger logger = new RecordingErrorLogger(null, 1, 60000, 3);
+        for (int i = 0; i < 7; i++) {
+            logger.log(definition, new IllegalStateException());
+        }
+        // the first with stack trace, then the 3rd and 6th suppressed without
+        assertEquals(3, logger.messages.size());
+        assertNull(logger.causes.get(1));
+        assertTrue(logger.messages.get(2).endsWith("6 suppressed in this interval"));
+    }
+
+    @Test
+    public void testRolloverOnNextOccurrence() throws Exception {
+        RecordingErrorLogger logger = new RecordingErrorLogger(null, 1, 50, 0);
+        for (int i = 0; i < 3; i++) {
+            logger.log(definition, new IllegalStateException());
+        }
+        Thread.sleep(100);
+        logger.log(definition, new IllegalStateException());
+        assertEquals(3, logger.messages.size());
+        assertTrue(logger.messages.get(1).startsWith("suppressed 2 "));
+    }
+
+    @Test
+    public void testRolloverByTimer() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            RecordingErrorLogger logger = new RecordingErrorLogger(vertx, 1, 50, 0);
+            for (int i = 0; i < 3; i++) {
+                logger.log(definition, new IllegalStateException());
+            }
+            // the count of the last burst is logged without another occurrence
+            long deadline = System.currentTimeMillis() + 2000;
+            while (logger.messages.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, logger.messages.size());
+            assertTrue(logger.messages.get(1).startsWith("suppressed 2 "));
+        } finally {
+            vertx.close();
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class GradientConcurrencyLimiterTest {
+
+    private static final long MS = 1000000L;
+
+    @Test
+    public void testLimitGrowsWithStableLatency() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(10, 1, 100, 0);
+        for (int window = 0; window < 20; window++) {
+            run(limiter, limiter.getLimit(), 10 * MS);
+        }
+        assertTrue(limiter.getLimit() > 10);
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyGrows() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100, 0);
+        run(limiter, 50, 10 * MS);
+        int stable = limiter.getLimit();
+        for (int window = 0; window < 20; window++) {
+            run(limiter, limiter.getLimit(), 100 * MS);
+        }
+        assertTrue(limiter.getLimit() < stable);
+    }
+
+    @Test
+    public void testLimitShrinksOnDrop() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100, 0);
+        for (int window = 0; window < 20; window++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MS, true);
+        }
+        assertTrue(limiter.getLimit() < 50);
+    }
+
+    @Test
+    public void testDropHalvesLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(50, 1, 100, 0);
+        assertTrue(limiter.tryAcquire());
+        limiter.release(10 * MS, true);
+        assertEquals(25, limiter.getLimit());
+    }
+
+    @Test
+    public void testWindowRollsOverBeforeCountOverflow() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 100, 3600000);
+        // the time window never ends, the count of 2^21 samples rolls it over
+        for (int i = 0; i < 1 << 20; i++) {
+            run(limiter, 2, 10 * MS);
+        }
+        assertTrue(limiter.getLimit() > 2);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertInvalid(() -> new GradientConcurrencyLimiter(10, 0, 100, 100));
+        assertInvalid(() -> new GradientConcurrencyLimiter(10, 20, 10, 100));
+        assertInvalid(() -> new GradientConcurrencyLimiter(200, 1, 100, 100));
+        assertInvalid(() -> new GradientConcurrencyLimiter(10, 1, 100, -1));
+        assertInvalid(() -> new FixedConcurrencyLimiter(0));
+    }
+
+    @Test
+    public void testRejectOverLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 100, 1000);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(MS, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    private static void assertInvalid(Runnable constructor) {
+        try {
+            constructor.run();
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static void run(GradientConcurrencyLimiter limiter, int concurrency, long rtt) {
+        int acquired = 0;
+        while (acquired < concurrency && limiter.tryAcquire()) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rtt, false);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.ErrorResponse;
+
+import io.vertx.core.json.JsonObject;
+
+public class JsonErrorRendererTest {
+
+    @Test
+    public void testStaticResponseIsCached() {
+        JsonErrorRenderer renderer = new JsonErrorRenderer();
+        ErrorResponse response = renderer.render(500, new IllegalStateException());
+        assertSame(response, renderer.render(500, new IllegalStateException()));
+        assertEquals("java.lang.IllegalStateException: null",
+            response.getBody().toJsonObject().getString("message"));
+    }
+
+    @Test
+    public void testDynamicMessageIsEscaped() {
+        String message = "bad \"name\"\n\\ \u0001";
+        ErrorResponse response = new JsonErrorRenderer().render(503, new IllegalArgumentException(message));
+        JsonObject body = response.getBody().toJsonObject();
+        assertEquals(503, response.getStatus());
+        assertEquals("503", body.getString("code"));
+        assertEquals("java.lang.IllegalArgumentException: " + message, body.getString("message"));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.resource.UserBean;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.json.JsonObject;
+
+public class JsonMessageConverterTest {
+
+    @Test
+    public void testEncodeWithBlackbird() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertTrue(JsonMessageConverter.registerBlackbird(objectMapper));
+        assertTrue(objectMapper.getRegisteredModuleIds().size() > 0);
+
+        JsonMessageConverter converter = new JsonMessageConverter(objectMapper);
+        converter.prepare(UserBean.class);
+        JsonObject json = converter.encode(new UserBean("dinstone", 28, true)).toJsonObject();
+        assertEquals("dinstone", json.getString("name"));
+        assertEquals(28, json.getInteger("age").intValue());
+    }
+}
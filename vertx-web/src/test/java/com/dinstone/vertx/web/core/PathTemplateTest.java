@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+public class PathTemplateTest {
+
+    @Test
+    public void testRoutePath() {
+        RouteDefinition definition = new RouteDefinition("/user", null, null, null);
+        definition.setMethodPath("/{id:long}/orders/{date:iso-date}");
+        assertEquals("/user/:id/orders/:date", definition.getRoutePath());
+        assertEquals("/user/{id:long}/orders/{date:iso-date}", definition.getPathTemplate());
+
+        definition.setMethodPath("/:id/orders");
+        assertEquals("/user/:id/orders", definition.getRoutePath());
+        assertNull(definition.getPathTemplate());
+
+        // the regex quantifier isn't a template segment
+        definition.setMethodPath("/(\\d{3})");
+        assertNull(definition.getPathTemplate());
+    }
+
+    @Test
+    public void testCompile() {
+        PathTemplate template = PathTemplate.compile("/user/{id:long}/orders/{date:iso-date}/:name/{nick}");
+        assertEquals(Long.class, template.getParamType("id"));
+        assertEquals(LocalDate.class, template.getParamType("date"));
+        assertEquals(String.class, template.getParamType("name"));
+        assertEquals(String.class, template.getParamType("nick"));
+        assertNull(template.getParamType("user"));
+        assertEquals(1, template.indexOf("id"));
+    }
+
+    @Test
+    public void testSegmentTypes() {
+        assertEquals(-12, PathTemplate.parse("int", "-12"));
+        assertEquals(7, PathTemplate.parse("int", "0000000000007"));
+        assertNull(PathTemplate.parse("int", "me"));
+        assertNull(PathTemplate.parse("int", "-"));
+        assertNull(PathTemplate.parse("int", "12345678901"));
+        // the overflow has a valid shape
+        assertNull(PathTemplate.parse("int", "2147483648"));
+        assertEquals(Long.MAX_VALUE, PathTemplate.parse("long", "9223372036854775807"));
+        assertNull(PathTemplate.parse("long", "9223372036854775808"));
+        assertEquals(1.5e3, PathTemplate.parse("double", "1.5e3"));
+        assertNull(PathTemplate.parse("double", "NaN"));
+        assertNull(PathTemplate.parse("double", "1e"));
+        assertEquals(Boolean.FALSE, PathTemplate.parse("boolean", "false"));
+        assertNull(PathTemplate.parse("boolean", "no"));
+        assertEquals(UUID.fromString("123e4567-e89b-12d3-a456-426614174000"),
+            PathTemplate.parse("uuid", "123e4567-e89b-12d3-a456-426614174000"));
+        assertNull(PathTemplate.parse("uuid", "123e4567e89b12d3a456426614174000"));
+        assertEquals(LocalDate.of(2022, 3, 1), PathTemplate.parse("iso-date", "2022-03-01"));
+        assertNull(PathTemplate.parse("iso-date", "2022-13-01"));
+        assertNull(PathTemplate.parse("iso-date", "2022-02-30"));
+        assertNull(PathTemplate.parse("iso-date", "today"));
+    }
+
+    @Test
+    public void testPrefix() {
+        assertEquals("/user", PathTemplate.compile("/user/{id:long}/orders").getPrefix());
+        assertEquals("/user/orders", PathTemplate.compile("/user/orders/:name").getPrefix());
+        assertEquals("", PathTemplate.compile("/{id:long}/orders").getPrefix());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() {
+        PathTemplate.compile("/user/{id:decimal}");
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vertx.core.buffer.Buffer;
+
+public class ResponseCacheTest {
+
+    private static final int BODY = 100;
+
+    @Test
+    public void testWeightIsBounded() {
+        ResponseCache cache = new ResponseCache(16 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, entry(60000));
+        }
+        assertTrue(cache.weight() <= 16 * 1024);
+    }
+
+    @Test
+    public void testExpiredEntryIsMissed() {
+        ResponseCache cache = new ResponseCache(1024 * 1024);
+        cache.put("k", entry(0));
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    public void testHotEntrySurvivesScan() {
+        // multiples of 16 fall in the same segment, the segment holds 3 entries
+        ResponseCache cache = new ResponseCache(16 * 3 * (BODY + 128));
+        cache.put(0, entry(60000));
+        assertNotNull(cache.get(0));
+        for (int i = 1; i <= 10; i++) {
+            cache.put(i * 16, entry(60000));
+        }
+        assertNotNull(cache.get(0));
+        assertNull(cache.get(16));
+        assertNotNull(cache.get(160));
+    }
+
+    private static ResponseCache.Entry entry(long ttl) {
+        return new ResponseCache.Entry(Buffer.buffer(new byte[BODY]), "application/json", null, ttl);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Route;
+import io.vertx.ext.web.Router;
+
+public class RouteIndexTest {
+
+    @Test
+    public void testIsIndexable() {
+        assertTrue(RouteIndex.isIndexable(definition("/user")));
+        assertTrue(RouteIndex.isIndexable(definition("/user/:name/detail")));
+        assertFalse(RouteIndex.isIndexable(definition("/user/*")));
+        assertFalse(RouteIndex.isIndexable(definition("/user/:name.json")));
+        assertFalse(RouteIndex.isIndexable(definition("/user/v:version")));
+        assertFalse(RouteIndex.isIndexable(definition("/user/([^\\/]+)")));
+    }
+
+    @Test
+    public void testFirstRegisteredWins() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            Router router = Router.router(vertx);
+            RouteIndex routeIndex = new RouteIndex(vertx);
+            route(routeIndex, "/user/me").handler(context -> context.response().end("literal"));
+            route(routeIndex, "/user/:name").handler(context -> context.response().end("param"));
+            route(routeIndex, "/item/:id").handler(context -> context.response().end("param"));
+            route(routeIndex, "/item/all").handler(context -> context.response().end("literal"));
+            router.route().order(-1).handler(routeIndex);
+            int port = listen(vertx, router);
+
+            assertEquals("literal", request(vertx, port, "/user/me", null));
+            assertEquals("param", request(vertx, port, "/user/you", null));
+            // the parameter registered first wins as the plain routing
+            assertEquals("param", request(vertx, port, "/item/all", null));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void testDeclinedFallthrough() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            Router router = Router.router(vertx);
+            RouteIndex routeIndex = new RouteIndex(vertx);
+            route(routeIndex, "/order/:id").produces("application/xml")
+                .handler(context -> context.response().end("xml"));
+            route(routeIndex, "/order/:id").handler(context -> {
+                if (context.pathParam("id").matches("\\d+")) {
+                    context.response().end("number");
+                } else {
+                    context.next();
+                }
+            });
+            route(routeIndex, "/order/latest").handler(context -> context.response().end("latest"));
+            router.route().order(-1).handler(routeIndex);
+            router.route().handler(context -> context.response().end("main"));
+            int port = listen(vertx, router);
+
+            assertEquals("xml", request(vertx, port, "/order/latest", "application/xml"));
+            assertEquals("number", request(vertx, port, "/order/12", "application/json"));
+            assertEquals("latest", request(vertx, port, "/order/latest", "application/json"));
+            assertEquals("main", request(vertx, port, "/order/first", "application/json"));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void testRegexAfterIndex() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            Router router = Router.router(vertx);
+            router.routeWithRegex(HttpMethod.GET, "/file/.*").handler(context -> context.response().end("regex"));
+            RouteIndex routeIndex = new RouteIndex(vertx);
+            route(routeIndex, "/file/readme").handler(context -> context.response().end("indexed"));
+            router.route().order(-1).handler(routeIndex);
+            int port = listen(vertx, router);
+
+            // the index is tried before the regex routes even if they are registered first
+            assertEquals("indexed", request(vertx, port, "/file/readme", null));
+            assertEquals("regex", request(vertx, port, "/file/license", null));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private static Route route(RouteIndex routeIndex, String path) {
+        List<HttpMethod> methods = Collections.singletonList(HttpMethod.GET);
+        return routeIndex.getRouter(path, methods).route(HttpMethod.GET, path);
+    }
+
+    private static int listen(Vertx vertx, Router router) throws Exception {
+        HttpServer server = vertx.createHttpServer().requestHandler(router).listen(0).toCompletionStage()
+            .toCompletableFuture().get();
+        return server.actualPort();
+    }
+
+    private static String request(Vertx vertx, int port, String uri, String accept) throws Exception {
+        CompletableFuture<String> body = new CompletableFuture<>();
+        vertx.createHttpClient().request(HttpMethod.GET, port, "localhost", uri).compose(req -> {
+            if (accept != null) {
+                req.putHeader(HttpHeaders.ACCEPT, accept);
+            }
+            return req.send();
+        }).compose(res -> res.body()).onSuccess(buff -> body.complete(buff.toString()))
+            .onFailure(body::completeExceptionally);
+        return body.get();
+    }
+
+    private static RouteDefinition definition(String path) {
+        RouteDefinition definition = new RouteDefinition("", null, null, null);
+        definition.setMethodPath(path);
+        return definition;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+import com.dinstone.vertx.web.ExceptionHandler;
+import com.dinstone.vertx.web.RouterBuilder;
+import com.dinstone.vertx.web.model.RouteDefinition;
+
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Vertx;
+import io.vertx.ext.web.RoutingContext;
+
+public class RouterContextTest {
+
+    static class ExceptionHandler0 implements ExceptionHandler<Exception> {
+
+        @Override
+        public void handle(Exception t, RoutingContext context) {
+        }
+    }
+
+    static class IllegalArgumentHandler implements ExceptionHandler<IllegalArgumentException> {
+
+        @Override
+        public void handle(IllegalArgumentException t, RoutingContext context) {
+        }
+    }
+
+    @Test
+    public void testNearestExceptionHandler() {
+        RouterContext routerContext = new RouterContext(null);
+        ExceptionHandler0 exceptionHandler = new ExceptionHandler0();
+        routerContext.addExceptionHandler(exceptionHandler);
+        assertSame(exceptionHandler, routerContext.getExceptionHandler(NumberFormatException.class));
+
+        // the resolved handler is replaced by the more specific one
+        IllegalArgumentHandler illegalArgumentHandler = new IllegalArgumentHandler();
+        routerContext.addExceptionHandler(illegalArgumentHandler);
+        assertSame(illegalArgumentHandler, routerContext.getExceptionHandler(NumberFormatException.class));
+        assertSame(exceptionHandler, routerContext.getExceptionHandler(IllegalStateException.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testWorkerPoolRedeclared() {
+        Vertx vertx = Vertx.vertx();
+        try {
+            RouterContext routerContext = new RouterContext(vertx);
+            routerContext.getBlockingExecutor(workerPoolDefinition("pool", 2));
+            routerContext.getBlockingExecutor(workerPoolDefinition("pool", 4));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void testWorkerPoolClosedOnStop() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        RouterBuilder routerBuilder = RouterBuilder.create(vertx);
+        CompletableFuture<String> deployed = new CompletableFuture<>();
+        vertx.deployVerticle(new AbstractVerticle() {
+
+            @Override
+            public void start() {
+                routerBuilder.build();
+                routerBuilder.getRouterContext().getBlockingExecutor(workerPoolDefinition("pool", 2));
+            }
+
+            @Override
+            public void stop() {
+                routerBuilder.close();
+            }
+        }, ar -> deployed.complete(ar.result()));
+        String deploymentId = deployed.get();
+        assertEquals(2, routerBuilder.getRouterContext().getWorkerPoolExecutors().size());
+
+        CompletableFuture<Void> undeployed = new CompletableFuture<>();
+        vertx.undeploy(deploymentId, ar -> undeployed.complete(null));
+        undeployed.get();
+        // only the shared worker pool is left
+        assertEquals(1, routerBuilder.getRouterContext().getWorkerPoolExecutors().size());
+        vertx.close();
+    }
+
+    private static RouteDefinition workerPoolDefinition(String workerPool, int size) {
+        RouteDefinition definition = new RouteDefinition("", null, null, null);
+        definition.setWorkerPool(workerPool, size, 60000);
+        return definition;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2016~2022 dinstone<dinstone@163.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.dinstone.vertx.web.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testShareInflightCall() {
+        SingleFlight singleFlight = new SingleFlight();
+        Promise<Object> promise = Promise.promise();
+        Future<Object> first = singleFlight.execute("key", promise::future);
+        Future<Object> second = singleFlight.execute("key", () -> Future.succeededFuture("other"));
+        assertSame(first, second);
+        assertEquals(1, singleFlight.size());
+
+        promise.complete("value");
+        assertEquals("value", second.result());
+        assertEquals(0, singleFlight.size());
+    }
+
+    @Test
+    public void testThrowingCall() {
+        SingleFlight singleFlight = new SingleFlight();
+        Future<Object> future = singleFlight.execute("key", () -> {
+            throw new IllegalArgumentException("boom");
+        });
+        assertTrue(future.cause() instanceof IllegalArgumentException);
+        assertEquals(0, singleFlight.size());
+
+        // the next caller starts a new call
+        assertEquals("value", singleFlight.execute("key", () -> Future.succeededFuture("value")).result());
+    }
+
+    @Test
+    public void testNullFutureCall() {
+        SingleFlight singleFlight = new SingleFlight();
+        Future<Object> future = singleFlight.execute("key", () -> null);
+        assertTrue(future.failed());
+        assertEquals(0, singleFlight.size());
+
+        assertEquals("value", singleFlight.execute("key", () -> Future.succeededFuture("value")).result());
+    }
+
+}
@@ -15,26 +15,54 @@
  */
 package com.dinstone.vertx.web.resource;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
 import com.dinstone.vertx.web.annotation.BeanParam;
+import com.dinstone.vertx.web.annotation.BodyLimit;
+import com.dinstone.vertx.web.annotation.CacheResponse;
+import com.dinstone.vertx.web.annotation.Compress;
+import com.dinstone.vertx.web.annotation.Delete;
+import com.dinstone.vertx.web.annotation.ETag;
+import com.dinstone.vertx.web.annotation.ConcurrencyLimit;
 import com.dinstone.vertx.web.annotation.Context;
+import com.dinstone.vertx.web.annotation.Execution;
 import com.dinstone.vertx.web.annotation.FormParam;
 import com.dinstone.vertx.web.annotation.Get;
+import com.dinstone.vertx.web.annotation.Head;
 import com.dinstone.vertx.web.annotation.HeaderParam;
+import com.dinstone.vertx.web.annotation.Patch;
 import com.dinstone.vertx.web.annotation.PathParam;
 import com.dinstone.vertx.web.annotation.Post;
 import com.dinstone.vertx.web.annotation.Produces;
 import com.dinstone.vertx.web.annotation.QueryParam;
+import com.dinstone.vertx.web.annotation.SingleFlight;
+import com.dinstone.vertx.web.annotation.Timeout;
 import com.dinstone.vertx.web.annotation.WebHandler;
+import com.dinstone.vertx.web.model.ExecutionMode;
 
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
+import io.vertx.core.parsetools.JsonEventType;
+import io.vertx.core.parsetools.JsonParser;
 import io.vertx.ext.web.RoutingContext;
 
 @WebHandler("/ur")
 @Produces("application/json")
 public class UserResource {
 
+	private final AtomicInteger flights = new AtomicInteger();
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final AtomicInteger pulls = new AtomicInteger();
+
 	@Post("/c/:name")
 	public UserBean c(@PathParam("name") String name, @QueryParam("age") int age, @FormParam("sex") boolean sex) {
 		return new UserBean(name, age, sex);
@@ -78,4 +106,138 @@ public class UserResource {
 		context.response().end("OK");
 
 	}
+
+	@Get("/vt/:name")
+	@Execution(ExecutionMode.VIRTUAL_THREAD)
+	public UserBean vt(@PathParam("name") String name, @QueryParam("age") int age) {
+		return new UserBean(name, age, true);
+	}
+
+	@Get("/to")
+	@Timeout(100)
+	public Future<UserBean> to() {
+		// never completes
+		return Promise.<UserBean>promise().future();
+	}
+
+	@Get("/cl")
+	@Timeout(1000)
+	@ConcurrencyLimit(1)
+	public Future<UserBean> cl() {
+		// never completes
+		return Promise.<UserBean>promise().future();
+	}
+
+	@Get("/sf/:name")
+	@SingleFlight
+	public UserBean sf(@PathParam("name") String name) throws InterruptedException {
+		Thread.sleep(300);
+		return new UserBean(name, flights.incrementAndGet(), true);
+	}
+
+	@Get("/rc/:name")
+	@CacheResponse(ttl = 10000)
+	public UserBean rc(@PathParam("name") String name) {
+		return new UserBean(name, hits.incrementAndGet(), true);
+	}
+
+	@Get("/et/:name")
+	@ETag
+	public UserBean et(@PathParam("name") String name) {
+		return new UserBean(name, 1, true);
+	}
+
+	@Get("/hd")
+	public String hd() {
+		return "get";
+	}
+
+	@Head("/hd")
+	public void hhd(@Context RoutingContext context) {
+		context.response().putHeader("X-Head", "explicit").end();
+	}
+
+	@Patch("/pa/:name")
+	public UserBean pa(@PathParam("name") String name, @QueryParam("age") int age) {
+		return new UserBean(name, age, false);
+	}
+
+	@Get("/tp/{id:long}/orders/{date:iso-date}")
+	public String tp(@PathParam("id") long id, @PathParam("date") LocalDate date) {
+		return id + "@" + date.getYear();
+	}
+
+	@Get("/tp/{name}/orders/{date:iso-date}")
+	public String tpn(@PathParam("name") String name, @PathParam("date") LocalDate date) {
+		return name + "@" + date.getYear();
+	}
+
+	@Delete("/pa/:id")
+	public int pad(@PathParam("id") int id) {
+		return id;
+	}
+
+	@Get("/cp/:size")
+	@Compress(minSize = 256)
+	public List<UserBean> cp(@PathParam("size") int size) {
+		List<UserBean> users = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			users.add(new UserBean("user" + i, i, true));
+		}
+		return users;
+	}
+
+	@Post("/bl")
+	@BodyLimit(64)
+	public String bl(@BeanParam UserBean user) {
+		return user.getName();
+	}
+
+	@Post("/st")
+	public Future<Integer> st(@BeanParam JsonParser parser) {
+		Promise<Integer> promise = Promise.promise();
+		AtomicInteger count = new AtomicInteger();
+		parser.objectValueMode().handler(event -> {
+			if (event.type() == JsonEventType.VALUE) {
+				count.incrementAndGet();
+			}
+		}).exceptionHandler(promise::tryFail).endHandler(v -> promise.tryComplete(count.get()));
+		parser.resume();
+		return promise.future();
+	}
+
+	@Get("/it/:size")
+	public Iterator<UserBean> it(@PathParam("size") int size) {
+		return IntStream.range(0, size).mapToObj(i -> new UserBean("user" + i, i, true)).iterator();
+	}
+
+	@Get("/sl/:size")
+	@Timeout(100)
+	public Iterator<UserBean> sl(@PathParam("size") int size) {
+		return IntStream.range(0, size).mapToObj(i -> {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return i % 2 == 0 ? null : new UserBean("user" + i, i, true);
+		}).iterator();
+	}
+
+	@Get("/hs/:size")
+	public Stream<UserBean> hs(@PathParam("size") int size) {
+		return IntStream.range(0, size).peek(i -> pulls.incrementAndGet())
+			.mapToObj(i -> new UserBean("user" + i, i, true));
+	}
+
+	@Get("/hs")
+	public int hsp() {
+		return pulls.get();
+	}
+
+	@Get("/nd/:size")
+	@Produces({ "application/json", "application/x-ndjson" })
+	public Stream<UserBean> nd(@PathParam("size") int size) {
+		return IntStream.range(0, size).mapToObj(i -> new UserBean("user" + i, i, true));
+	}
 }
@@ -15,15 +15,26 @@
  */
 package com.dinstone.vertx.web.resource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.dinstone.vertx.web.RouterBuilder;
+import com.dinstone.vertx.web.RouterOptions;
 import com.dinstone.vertx.web.converter.FormMessageConverter;
 
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
@@ -378,4 +389,638 @@ public class UserResourceTest {
         async.await();
     }
 
+    @Test
+    public void testGet03(TestContext ctx) {
+        final Async async = ctx.async();
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/vt/dinstone?age=34").onSuccess(req -> {
+                req.exceptionHandler(ctx::fail).send().onComplete(res -> {
+                    ctx.assertEquals(200, res.result().statusCode());
+                    res.result().bodyHandler(buff -> {
+                        JsonObject uo = buff.toJsonObject();
+                        ctx.assertEquals("dinstone", uo.getString("name"));
+                        ctx.assertEquals(34, uo.getInteger("age"));
+
+                        server.result().close(v -> {
+                            if (v.failed()) {
+                                ctx.fail(v.cause());
+                                return;
+                            }
+                            async.complete();
+                        });
+                    });
+                });
+            }).onFailure(t -> ctx.fail(t));
+
+        });
+
+        async.await();
+    }
+
+    @Test
+    public void testTimeout00(TestContext ctx) {
+        final Async async = ctx.async();
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/to").onSuccess(req -> {
+                req.exceptionHandler(ctx::fail).send().onComplete(res -> {
+                    ctx.assertEquals(503, res.result().statusCode());
+
+                    server.result().close(v -> {
+                        if (v.failed()) {
+                            ctx.fail(v.cause());
+                            return;
+                        }
+                        async.complete();
+                    });
+                });
+            }).onFailure(t -> ctx.fail(t));
+
+        });
+
+        async.await();
+    }
+
+    @Test
+    public void testConcurrencyLimit00(TestContext ctx) {
+        final Async async = ctx.async();
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            // the first request holds the only permit until the deadline
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/cl").onSuccess(first -> {
+                first.send();
+                vertx.setTimer(200, t -> {
+                    httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/cl").onSuccess(req -> {
+                        req.exceptionHandler(ctx::fail).send().onComplete(res -> {
+                            ctx.assertEquals(503, res.result().statusCode());
+                            ctx.assertEquals("1", res.result().getHeader("Retry-After"));
+
+                            server.result().close(v -> {
+                                if (v.failed()) {
+                                    ctx.fail(v.cause());
+                                    return;
+                                }
+                                async.complete();
+                            });
+                        });
+                    }).onFailure(e -> ctx.fail(e));
+                });
+            }).onFailure(t -> ctx.fail(t));
+
+        });
+
+        async.await();
+    }
+
+    @Test
+    public void testSingleFlight00(TestContext ctx) {
+        final int requests = 3;
+        final Async async = ctx.async(requests);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            for (int i = 0; i < requests; i++) {
+                httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/sf/dinstone").onSuccess(req -> {
+                    req.exceptionHandler(ctx::fail).send().onComplete(res -> {
+                        ctx.assertEquals(200, res.result().statusCode());
+                        res.result().bodyHandler(buff -> {
+                            // all requests share the first invocation
+                            ctx.assertEquals(1, buff.toJsonObject().getInteger("age"));
+                            async.countDown();
+                        });
+                    });
+                }).onFailure(t -> ctx.fail(t));
+            }
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testCacheResponse00(TestContext ctx) {
+        final Async async = ctx.async(2);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            Handler<Buffer> check = buff -> {
+                // the second request is served by the cached response
+                ctx.assertEquals(1, buff.toJsonObject().getInteger("age"));
+                async.countDown();
+            };
+            get(httpClient, "/ur/rc/dinstone", ctx).compose(buff -> {
+                check.handle(buff);
+                return get(httpClient, "/ur/rc/dinstone", ctx);
+            }).onSuccess(check).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testETag00(TestContext ctx) {
+        final Async async = ctx.async();
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/et/dinstone").compose(req -> req.send())
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    String etag = res.getHeader("ETag");
+                    ctx.assertNotNull(etag);
+                    return httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/et/dinstone")
+                        .compose(req -> req.putHeader("If-None-Match", etag).send());
+                }).onSuccess(res -> {
+                    // the client has the same body
+                    ctx.assertEquals(304, res.statusCode());
+                    async.complete();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testCompress00(TestContext ctx) {
+        final Async async = ctx.async(2);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/cp/50")
+                .compose(req -> req.putHeader("Accept-Encoding", "deflate;q=0.5, gzip").send()).compose(res -> {
+                    ctx.assertEquals("gzip", res.getHeader("Content-Encoding"));
+                    return res.body();
+                }).onSuccess(buff -> {
+                    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buff.getBytes()))) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] chunk = new byte[1024];
+                        for (int n; (n = in.read(chunk)) > 0;) {
+                            out.write(chunk, 0, n);
+                        }
+                        ctx.assertEquals(50, new JsonArray(Buffer.buffer(out.toByteArray())).size());
+                    } catch (IOException e) {
+                        ctx.fail(e);
+                    }
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the small body is not compressed
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/cp/1")
+                .compose(req -> req.putHeader("Accept-Encoding", "gzip").send()).onSuccess(res -> {
+                    ctx.assertNull(res.getHeader("Content-Encoding"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testBodyLimit00(TestContext ctx) {
+        final Async async = ctx.async(2);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            JsonObject small = new JsonObject().put("name", "dinstone");
+            httpClient.request(HttpMethod.POST, 8081, "localhost", "/ur/bl")
+                .compose(req -> req.putHeader("Content-Type", "application/json").send(small.toBuffer()))
+                .onSuccess(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // rejected by the Content-Length
+            JsonObject large = new JsonObject().put("name", String.format("%0128d", 0));
+            httpClient.request(HttpMethod.POST, 8081, "localhost", "/ur/bl")
+                .compose(req -> req.putHeader("Content-Type", "application/json").send(large.toBuffer()))
+                .onSuccess(res -> {
+                    ctx.assertEquals(413, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testStreamingBody00(TestContext ctx) {
+        final Async async = ctx.async();
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            JsonArray users = new JsonArray();
+            for (int i = 0; i < 1000; i++) {
+                users.add(new JsonObject().put("name", "user" + i).put("age", i));
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.POST, 8081, "localhost", "/ur/st")
+                .compose(req -> req.putHeader("Content-Type", "application/json").send(users.toBuffer()))
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    return res.body();
+                }).onSuccess(buff -> {
+                    ctx.assertEquals("1000", buff.toString());
+                    async.complete();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testChunkedResponse00(TestContext ctx) {
+        final Async async = ctx.async(3);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/it/300").compose(req -> req.send())
+                .compose(res -> {
+                    ctx.assertEquals("chunked", res.getHeader("Transfer-Encoding"));
+                    return res.body();
+                }).onSuccess(buff -> {
+                    ctx.assertEquals(300, buff.toJsonArray().size());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/nd/3")
+                .compose(req -> req.putHeader("Accept", "application/x-ndjson").send()).compose(res -> {
+                    ctx.assertEquals("application/x-ndjson", res.getHeader("Content-Type"));
+                    return res.body();
+                }).onSuccess(buff -> {
+                    String[] lines = buff.toString().split("\n");
+                    ctx.assertEquals(3, lines.length);
+                    ctx.assertEquals("user2", new JsonObject(lines[2]).getString("name"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the stream outlives the deadline of the route, the null element is written as null
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/sl/200").compose(req -> req.send())
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    return res.body();
+                }).onSuccess(buff -> {
+                    JsonArray users = buff.toJsonArray();
+                    ctx.assertEquals(200, users.size());
+                    ctx.assertNull(users.getValue(0));
+                    ctx.assertEquals("user1", users.getJsonObject(1).getString("name"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testHead00(TestContext ctx) {
+        final Async async = ctx.async(4);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            // the result is not encoded by HEAD, the cached response has the length
+            httpClient.request(HttpMethod.HEAD, 8081, "localhost", "/ur/rc/head").compose(req -> req.send())
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    ctx.assertEquals("application/json; charset=UTF-8", res.getHeader("Content-Type"));
+                    ctx.assertNull(res.getHeader("Content-Length"));
+                    return get(httpClient, "/ur/rc/head", ctx);
+                }).compose(buff -> {
+                    ctx.assertEquals(2, buff.toJsonObject().getInteger("age"));
+                    return httpClient.request(HttpMethod.HEAD, 8081, "localhost", "/ur/rc/head")
+                        .compose(req -> req.send()).map(res -> {
+                            ctx.assertEquals(String.valueOf(buff.length()), res.getHeader("Content-Length"));
+                            return res;
+                        });
+                }).onSuccess(res -> async.countDown()).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.HEAD, 8081, "localhost", "/ur/hd").compose(req -> req.send())
+                .onSuccess(res -> {
+                    ctx.assertEquals("explicit", res.getHeader("X-Head"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the stream of HEAD is discarded without pulling the elements
+            httpClient.request(HttpMethod.HEAD, 8081, "localhost", "/ur/hs/5").compose(req -> req.send())
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    ctx.assertEquals("application/json; charset=UTF-8", res.getHeader("Content-Type"));
+                    return get(httpClient, "/ur/hs", ctx);
+                }).onSuccess(buff -> {
+                    ctx.assertEquals("0", buff.toString());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.PATCH, 8081, "localhost", "/ur/pa/dinstone?age=3")
+                .compose(req -> req.send()).compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals(3, buff.toJsonObject().getInteger("age"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testCors00(TestContext ctx) {
+        final Async async = ctx.async(5);
+
+        Vertx vertx = Vertx.vertx();
+        RouterOptions options = new RouterOptions().setCorsAllowedOrigins(Arrays.asList("http://a.example"))
+            .setCorsMaxAge(600);
+        final Router router = RouterBuilder.create(vertx, options).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.OPTIONS, 8081, "localhost", "/ur/c/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example")
+                    .putHeader("Access-Control-Request-Method", "POST").send())
+                .onSuccess(res -> {
+                    ctx.assertEquals(204, res.statusCode());
+                    ctx.assertEquals("http://a.example", res.getHeader("Access-Control-Allow-Origin"));
+                    ctx.assertEquals("POST", res.getHeader("Access-Control-Allow-Methods"));
+                    ctx.assertEquals("Content-Type", res.getHeader("Access-Control-Allow-Headers"));
+                    ctx.assertEquals("600", res.getHeader("Access-Control-Max-Age"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.OPTIONS, 8081, "localhost", "/ur/rc/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example")
+                    .putHeader("Access-Control-Request-Method", "GET").send())
+                .onSuccess(res -> {
+                    ctx.assertEquals("GET, HEAD", res.getHeader("Access-Control-Allow-Methods"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the paths of the same shape share the preflight table
+            httpClient.request(HttpMethod.OPTIONS, 8081, "localhost", "/ur/pa/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example")
+                    .putHeader("Access-Control-Request-Method", "DELETE").send())
+                .onSuccess(res -> {
+                    ctx.assertEquals("PATCH, DELETE", res.getHeader("Access-Control-Allow-Methods"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.OPTIONS, 8081, "localhost", "/ur/rc/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://b.example")
+                    .putHeader("Access-Control-Request-Method", "GET").send())
+                .onSuccess(res -> {
+                    ctx.assertEquals(403, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/rc/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example").send()).onSuccess(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    ctx.assertEquals("http://a.example", res.getHeader("Access-Control-Allow-Origin"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testIndexedDispatch00(TestContext ctx) {
+        final Async async = ctx.async(5);
+
+        Vertx vertx = Vertx.vertx();
+        RouterOptions options = new RouterOptions().setIndexedDispatch(true);
+        final Router apiRouter = RouterBuilder.create(vertx, options).handler(new UserResource()).build();
+        // only the regex routes and the dispatcher are left on the router
+        ctx.assertEquals(3, apiRouter.getRoutes().size());
+        final Router router = Router.router(vertx);
+        router.mountSubRouter("/api", apiRouter);
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.POST, 8081, "localhost", "/api/ur/c/dinstone?age=34")
+                .compose(req -> req.putHeader("Content-Type", "application/x-www-form-urlencoded").send("sex=true"))
+                .compose(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    return res.body();
+                }).onSuccess(buff -> {
+                    JsonObject uo = buff.toJsonObject();
+                    ctx.assertEquals("dinstone", uo.getString("name"));
+                    ctx.assertEquals(34, uo.getInteger("age"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the regex route stays on the router
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/api/ur/regp/gjf/dinstone")
+                .compose(req -> req.send()).compose(res -> res.body()).onSuccess(buff -> {
+                    ctx.assertEquals("OK", buff.toString());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.HEAD, 8081, "localhost", "/api/ur/hd").compose(req -> req.send())
+                .onSuccess(res -> {
+                    ctx.assertEquals("explicit", res.getHeader("X-Head"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            get(httpClient, "/api/ur/tp/7/orders/2022-03-01", ctx).onSuccess(buff -> {
+                ctx.assertEquals("\"7@2022\"", buff.toString());
+                async.countDown();
+            }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/api/ur/none").compose(req -> req.send())
+                .onSuccess(res -> {
+                    ctx.assertEquals(404, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testIndexedDispatch01(TestContext ctx) {
+        final Async async = ctx.async(3);
+
+        Vertx vertx = Vertx.vertx();
+        RouterOptions options = new RouterOptions().setIndexedDispatch(true)
+            .setCorsAllowedOrigins(Arrays.asList("http://a.example"));
+        final Router router = RouterBuilder.create(vertx, options).handler(new UserResource()).build();
+        // the preflight routes of the indexed paths are dispatched by the index
+        ctx.assertFalse(router.getRoutes().stream().anyMatch(route -> route.getPath() != null));
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            httpClient.request(HttpMethod.OPTIONS, 8081, "localhost", "/ur/c/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example")
+                    .putHeader("Access-Control-Request-Method", "POST").send())
+                .onSuccess(res -> {
+                    ctx.assertEquals(204, res.statusCode());
+                    ctx.assertEquals("POST", res.getHeader("Access-Control-Allow-Methods"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            // the segment not typed as long falls through to the next indexed route
+            get(httpClient, "/ur/tp/me/orders/2021-12-31", ctx).onSuccess(buff -> {
+                ctx.assertEquals("\"me@2021\"", buff.toString());
+                async.countDown();
+            }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/rc/dinstone")
+                .compose(req -> req.putHeader("Origin", "http://a.example").send()).onSuccess(res -> {
+                    ctx.assertEquals(200, res.statusCode());
+                    ctx.assertEquals("http://a.example", res.getHeader("Access-Control-Allow-Origin"));
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    @Test
+    public void testPathTemplate00(TestContext ctx) {
+        final Async async = ctx.async(4);
+
+        Vertx vertx = Vertx.vertx();
+        final Router router = RouterBuilder.create(vertx).handler(new UserResource()).build();
+        vertx.createHttpServer().requestHandler(router).listen(8081, server -> {
+            if (server.failed()) {
+                ctx.fail(server.cause());
+                return;
+            }
+
+            HttpClient httpClient = vertx.createHttpClient();
+            get(httpClient, "/ur/tp/12/orders/2022-03-01", ctx).onSuccess(buff -> {
+                ctx.assertEquals("\"12@2022\"", buff.toString());
+                async.countDown();
+            }).onFailure(ctx::fail);
+
+            // the segment not typed as long falls through to the next route
+            get(httpClient, "/ur/tp/me/orders/2021-12-31", ctx).onSuccess(buff -> {
+                ctx.assertEquals("\"me@2021\"", buff.toString());
+                async.countDown();
+            }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/tp/12/orders/today")
+                .compose(req -> req.send()).onSuccess(res -> {
+                    ctx.assertEquals(404, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+
+            httpClient.request(HttpMethod.GET, 8081, "localhost", "/ur/tp/12/orders")
+                .compose(req -> req.send()).onSuccess(res -> {
+                    ctx.assertEquals(404, res.statusCode());
+                    async.countDown();
+                }).onFailure(ctx::fail);
+        });
+
+        async.await();
+        vertx.close();
+    }
+
+    private static Future<Buffer> get(HttpClient httpClient, String uri, TestContext ctx) {
+        return httpClient.request(HttpMethod.GET, 8081, "localhost", uri).compose(req -> req.send()).compose(res -> {
+            ctx.assertEquals(200, res.statusCode());
+            ctx.assertEquals("application/json; charset=UTF-8", res.getHeader("Content-Type"));
+            return res.body();
+        });
+    }
+
 }